@@ -1,31 +1,31 @@
 package com.github.fwi.swing.formlayout;
 
+import java.awt.Component;
+import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.Rectangle;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.BorderFactory;
 import javax.swing.JComponent;
 import javax.swing.JViewport;
 import javax.swing.Scrollable;
 import javax.swing.SwingConstants;
+import javax.swing.Timer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.fwi.swing.formlayout.builder.BaseFormBuilder;
-
 /**
- * Abstract base class for form-box classes {@link LineBox} and {@link PageBox}.
+ * Abstract base class for form-box classes {@link LineBox}, {@link PageBox} and {@link GridBox}.
  * Adds options for scrolling (see {@link #setScrollToMinSize(boolean)}, insets (see {@link #setInsets(int, int)})
  * and maximum grow-sizes ({@link #setMaxGrowX(double)} and {@link #setMaxGrowY(double)}).
  * <p>
- * The maximum grow-sizes only work when the whole container-hierarchy (of types of this class) is examined.
- * This is supported by the {@link BaseFormBuilder} (method <tt>applyMaxGrowFromParentContainers</tt>) 
- * but only when containers are added (i.e. changes made to the max-grow sizes after the container of this class was added, 
- * are not adjusted for any max-grow size constraints from parents).
- * <br>The {@link FormLayoutManager} restricts the maximum size of the container to the max-grow size set on the container itself
- * (using method {@link #withinMaxGrow(Dimension)}), the layout manager will not (and cannot) use the max-grow size restrictions 
- * from parent containers. 
+ * The maximum grow-sizes of parent boxes also apply to this box: the effective maximum grow-sizes 
+ * (see {@link #getEffectiveMaxGrowX()} and {@link #getEffectiveMaxGrowY()}) are kept per box
+ * and are updated when the maximum grow-sizes of a parent box change or when this box is added to another container.
+ * <br>The {@link FormLayoutManager} restricts the maximum size of the container to the effective max-grow size
+ * (using method {@link #withinMaxGrow(Dimension)}). 
  * 
  * @author frederik
  */
@@ -33,7 +33,6 @@ public abstract class AbstractBox extends JComponent implements Scrollable {
 
 	private static final long serialVersionUID = 7804719261078140432L;
 
-	@SuppressWarnings("unused")
 	private static final Logger log = LoggerFactory.getLogger(AbstractBox.class);
 
 	protected FormGraphics formGraphics = FormGraphics.getInstance();
@@ -41,6 +40,10 @@ public abstract class AbstractBox extends JComponent implements Scrollable {
 	protected int direction;
 	protected double maxGrowY;
 	protected double maxGrowX;
+	protected double effectiveMaxGrowY;
+	protected double effectiveMaxGrowX;
+	/** The amount of {@link MirrorBox}es mimicking the sizes of this box (not counting mirror-boxes removed from a displayable container). */
+	protected int mirrorCount;
 
 	/**
 	 * See {@link #setScrollToMinSize(boolean)}.
@@ -80,6 +83,66 @@ public abstract class AbstractBox extends JComponent implements Scrollable {
 		setBorder(BorderFactory.createEmptyBorder(top, left, bottom, right));
 	}
 
+	/**
+	 * A box is a validate root when changes within the box can not change the layout of the parent container:
+	 * the layout manager of the parent uses form-constraints for this box instead of the sizes of this box,
+	 * or the minimum, preferred and maximum sizes of this box are fixed (set explicitly). 
+	 * A box mimicked by a {@link MirrorBox} is never a validate root.
+	 * <br>A {@link JComponent#revalidate()} of a component in the box then only lays out this box.
+	 * To also stop invalidation of parent containers at this box, 
+	 * use {@link GraphicsUtil#setSmartRevalidate(boolean)} before any AWT/Swing component is created.
+	 */
+	@Override
+	public boolean isValidateRoot() {
+
+		Container parent = getParent();
+		if (parent == null || mirrorCount > 0) {
+			return false;
+		}
+		if (isMinimumSizeSet() && isPreferredSizeSet() && isMaximumSizeSet()) {
+			return true;
+		}
+		return (parent.getLayout() instanceof FormLayoutManager 
+				&& ((FormLayoutManager) parent.getLayout()).getConstraints(this) != null);
+	}
+
+	/**
+	 * Uses the {@link FormLayoutManager#indexAt(int, int)} to find the component in O(log n) 
+	 * when the layout is valid.
+	 * <br>Note that AWT does not use this method to dispatch mouse events:
+	 * the target of a mouse event is found by AWT itself, checking the components one by one.
+	 */
+	@Override
+	public Component getComponentAt(int x, int y) {
+
+		if (getLayout() instanceof FormLayoutManager && contains(x, y)) {
+			int index = ((FormLayoutManager) getLayout()).indexAt(x, y);
+			if (index >= 0 && index < getComponentCount()) {
+				Component c = getComponent(index);
+				return (c.isVisible() && c.contains(x - c.getX(), y - c.getY()) ? c : this);
+			}
+		}
+		return super.getComponentAt(x, y);
+	}
+
+	/**
+	 * Scrolls the component at the index into view (see {@link JComponent#scrollRectToVisible(Rectangle)}).
+	 * The area of the component is found in O(log n) via {@link FormLayoutManager#areaOf(int)} when the layout is valid.
+	 */
+	public void scrollToComponent(int index) {
+
+		Rectangle area = (getLayout() instanceof FormLayoutManager ? ((FormLayoutManager) getLayout()).areaOf(index) : null);
+		scrollRectToVisible(area == null ? getComponent(index).getBounds() : area);
+	}
+
+	/*
+	 * The answers for the viewport are cached until this box is invalidated or the viewport size changes,
+	 * the viewport asks for them constantly while scrolling.
+	 */
+	private transient Dimension scrollMinSize, scrollPrefSize;
+	private transient int scrollViewportWidth = -1, scrollViewportHeight = -1;
+	private transient boolean tracksViewportWidth, tracksViewportHeight;
+
 	/**
 	 * Override preferred size to return minimum size when scrollbars are present.
 	 * See also SO question <a href="http://stackoverflow.com/q/12769656/3080094">3080094</a>
@@ -88,29 +151,77 @@ public abstract class AbstractBox extends JComponent implements Scrollable {
 	@Override
 	public Dimension getPreferredSize() {
 		
-		Dimension size = super.getPreferredSize();
-		if (scrollToMinSize && getParent() instanceof JViewport) {
-			if (!getScrollableTracksViewportWidth()) {
-				size.width = getMinimumSize().width;
+		if (!scrollToMinSize || !(getParent() instanceof JViewport)) {
+			return super.getPreferredSize();
+		}
+		updateScrollableCache();
+		if (scrollPrefSize == null) {
+			scrollPrefSize = super.getPreferredSize();
+			if (!tracksViewportWidth) {
+				scrollPrefSize.width = scrollMinSize.width;
 			}
-			if (!getScrollableTracksViewportHeight()) {
-				size.height = getMinimumSize().height;
+			if (!tracksViewportHeight) {
+				scrollPrefSize.height = scrollMinSize.height;
 			}
 		}
-		return size;
+		return new Dimension(scrollPrefSize);
+	}
+
+	/**
+	 * Clears cached sizes used for {@link Scrollable} answers.
+	 */
+	@Override
+	public void invalidate() {
+
+		super.invalidate();
+		scrollMinSize = scrollPrefSize = null;
+		scrollViewportWidth = scrollViewportHeight = -1;
+	}
+
+	/*
+	 * Only call when parent is a viewport.
+	 */
+	private void updateScrollableCache() {
+
+		Container viewport = getParent();
+		if (scrollMinSize != null 
+				&& viewport.getWidth() == scrollViewportWidth && viewport.getHeight() == scrollViewportHeight) {
+			return;
+		}
+		if (scrollMinSize == null) {
+			scrollMinSize = getMinimumSize();
+		}
+		scrollViewportWidth = viewport.getWidth();
+		scrollViewportHeight = viewport.getHeight();
+		boolean tracksWidth = (scrollViewportWidth >= scrollMinSize.width);
+		boolean tracksHeight = (scrollViewportHeight >= scrollMinSize.height);
+		if (tracksWidth != tracksViewportWidth || tracksHeight != tracksViewportHeight) {
+			scrollPrefSize = null;
+		}
+		tracksViewportWidth = tracksWidth;
+		tracksViewportHeight = tracksHeight;
 	}
 
 	/* *** Scrollable methods *** */
 	
 	@Override
 	public boolean getScrollableTracksViewportWidth() {
-		return getParent() instanceof JViewport
-				&& getParent().getWidth() >= getMinimumSize().width;
+
+		if (!(getParent() instanceof JViewport)) {
+			return false;
+		}
+		updateScrollableCache();
+		return tracksViewportWidth;
 	}
+
 	@Override
 	public boolean getScrollableTracksViewportHeight() {
-		return getParent() instanceof JViewport
-				&& getParent().getHeight() >= getMinimumSize().height;
+
+		if (!(getParent() instanceof JViewport)) {
+			return false;
+		}
+		updateScrollableCache();
+		return tracksViewportHeight;
 	}
 
 	@Override
@@ -132,6 +243,177 @@ public abstract class AbstractBox extends JComponent implements Scrollable {
 					formGraphics.dwidth + formGraphics.hgap);
 	}
 
+	private transient boolean resizing;
+
+	/**
+	 * True while the size of this box changes. The {@link FormLayoutManager} keeps the layouts calculated in advance
+	 * when it is invalidated for a new size (see {@link FormLayoutManager#precompute(Container, java.util.Collection)}).
+	 */
+	public boolean isResizing() { return resizing; }
+
+	/**
+	 * Called by all setBounds and setSize methods.
+	 */
+	@Deprecated
+	@Override
+	public void reshape(int x, int y, int w, int h) {
+
+		resizing = (w != getWidth() || h != getHeight());
+		try {
+			super.reshape(x, y, w, h);
+		} finally {
+			resizing = false;
+		}
+	}
+
+	/* *** Resize coalescing *** */
+
+	protected boolean coalesceResize;
+	protected int resizeFrameMillis = 16;
+	protected int resizeSettleMillis = 150;
+	private transient Timer resizeFrameTimer, resizeSettleTimer;
+	private transient Dimension laidOutSize;
+	private transient long laidOutNanos;
+	private transient boolean layoutResized;
+
+	/**
+	 * See {@link #setCoalesceResize(boolean)}.
+	 */
+	public boolean isCoalesceResize() { return coalesceResize; }
+
+	/**
+	 * For the top-level box in a window: while the box is resized (e.g. a window edge is dragged),
+	 * lay out the box at most once per frame (see {@link #setResizeFrameMillis(int)}) using the latest size.
+	 * Size changes in between are not laid out (components keep their bounds) so that the event dispatch thread can paint.
+	 * When no size changes occurred during the settle time (see {@link #setResizeSettleMillis(int)}),
+	 * the box is laid out for the final size.
+	 * <br>Layouts that are not caused by a size change (e.g. a component was added) are not delayed,
+	 * neither are layouts for a size with bounds calculated in advance (e.g. an applied asynchronous layout,
+	 * see {@link #setAsyncLayout(boolean)}, which takes precedence over coalescing).
+	 * <br>When coalescing is turned off during a resize, the skipped size change is laid out.
+	 */
+	public void setCoalesceResize(boolean coalesceResize) {
+
+		this.coalesceResize = coalesceResize;
+		if (!coalesceResize && resizeFrameTimer != null
+				&& (resizeFrameTimer.isRunning() || resizeSettleTimer.isRunning())) {
+			resizeFrameTimer.stop();
+			resizeSettleTimer.stop();
+			layoutResized();
+		}
+	}
+
+	public int getResizeFrameMillis() { return resizeFrameMillis; }
+	/** The minimum time between layouts during a resize, default 16 milliseconds (60 frames per second). */
+	public void setResizeFrameMillis(int resizeFrameMillis) { this.resizeFrameMillis = Math.max(1, resizeFrameMillis); }
+
+	public int getResizeSettleMillis() { return resizeSettleMillis; }
+	/** The time without size changes after which a resize is finished, default 150 milliseconds. */
+	public void setResizeSettleMillis(int resizeSettleMillis) { this.resizeSettleMillis = Math.max(1, resizeSettleMillis); }
+
+	/**
+	 * Skips the layout for a size change when resizes are coalesced and the box was laid out less than a frame ago,
+	 * see {@link #setCoalesceResize(boolean)}.
+	 */
+	@Override
+	public void doLayout() {
+
+		Dimension size = getSize();
+		boolean resized = (laidOutSize != null && !size.equals(laidOutSize));
+		boolean precomputed = (resized && (asyncLayout || coalesceResize) && getLayout() instanceof FormLayoutManager
+				&& ((FormLayoutManager) getLayout()).hasPrecomputed(this));
+		if (resized && !layoutResized && asyncLayout && !precomputed) {
+			startAsyncLayout();
+			return;
+		}
+		// applying bounds calculated in advance is cheap, these are not delayed by coalescing.
+		if (!coalesceResize || layoutResized || !resized || precomputed) {
+			layoutResized = false;
+			laidOutSize = size;
+			laidOutNanos = System.nanoTime();
+			super.doLayout();
+			return;
+		}
+		if (resizeFrameTimer == null) {
+			resizeFrameTimer = new Timer(resizeFrameMillis, e -> layoutResized());
+			resizeFrameTimer.setRepeats(false);
+			resizeSettleTimer = new Timer(resizeSettleMillis, e -> layoutResized());
+			resizeSettleTimer.setRepeats(false);
+		}
+		resizeSettleTimer.setInitialDelay(resizeSettleMillis);
+		resizeSettleTimer.restart();
+		long sinceLayout = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - laidOutNanos);
+		if (sinceLayout >= resizeFrameMillis && !resizeFrameTimer.isRunning()) {
+			laidOutSize = size;
+			laidOutNanos = System.nanoTime();
+			super.doLayout();
+		} else if (!resizeFrameTimer.isRunning()) {
+			resizeFrameTimer.setInitialDelay((int) Math.max(1L, resizeFrameMillis - sinceLayout));
+			resizeFrameTimer.start();
+		}
+	}
+
+	protected boolean asyncLayout;
+	private transient boolean asyncLayoutRunning;
+
+	/**
+	 * See {@link #setAsyncLayout(boolean)}.
+	 */
+	public boolean isAsyncLayout() { return asyncLayout; }
+
+	/**
+	 * For the top-level box of a heavy window: a new size of the box is laid out asynchronously,
+	 * see {@link FormLayoutManager#layoutAsync(Container)}. Components keep their bounds until the bounds for the whole tree
+	 * are calculated and applied. When the calculated bounds are stale, the box is laid out as usual.
+	 * <br>Only applies to boxes using a {@link FormLayoutManager} (not a {@link GridBox} or {@link MirrorBox}).
+	 * Layouts that are not caused by a size change are not done asynchronously.
+	 */
+	public void setAsyncLayout(boolean asyncLayout) {
+		this.asyncLayout = (asyncLayout && LayoutSnapshot.isSupported(this));
+	}
+
+	/**
+	 * Starts an asynchronous layout if none is running. When it is done, the box is laid out again if the size changed.
+	 */
+	protected void startAsyncLayout() {
+
+		if (asyncLayoutRunning) {
+			return;
+		}
+		asyncLayoutRunning = true;
+		FormLayoutManager layout = (FormLayoutManager) getLayout();
+		layout.layoutAsync(this).whenComplete((applied, error) -> {
+			asyncLayoutRunning = false;
+			if (error != null) {
+				log.warn("Asynchronous layout failed.", error);
+			}
+			if (error != null || !applied) {
+				layoutResized();
+			} else if (!getSize().equals(laidOutSize)) {
+				layout.relayout(this);
+			}
+		});
+	}
+
+	/**
+	 * Lays out the box for the latest size (without measuring components again) if the size changed since the last layout.
+	 */
+	protected void layoutResized() {
+
+		if (laidOutSize == null || getSize().equals(laidOutSize)) {
+			return;
+		}
+		if (log.isTraceEnabled()) {
+			log.trace("Layout for resize from {} to {}", FormLayoutManager.toString(laidOutSize), FormLayoutManager.toString(getSize()));
+		}
+		layoutResized = true;
+		if (getLayout() instanceof FormLayoutManager) {
+			((FormLayoutManager) getLayout()).relayout(this);
+		} else {
+			revalidate();
+		}
+	}
+
 	/* *** MAX grow bounds *** */
 	
 	public double getMaxGrowX() {
@@ -140,11 +422,13 @@ public abstract class AbstractBox extends JComponent implements Scrollable {
 
 	/**
 	 * Limits the width of the box to the given value times {@link FormGraphics#dwidth}.
+	 * The limit also applies to all boxes within this box.
 	 * @param maxGrowX a value of <tt>0.0</tt> or smaller is used as "no limit".
 	 * A value between 0 and 1 is divided by 1.
 	 */
 	public void setMaxGrowX(double maxGrowX) {
 		this.maxGrowX = (maxGrowX <= 0.0 ? 0.0 : maxGrowX < 1.0 ? 1.0 / maxGrowX : maxGrowX);
+		updateEffectiveMaxGrow(true);
 	}
 	
 	public double getMaxGrowY() {
@@ -153,42 +437,125 @@ public abstract class AbstractBox extends JComponent implements Scrollable {
 
 	/**
 	 * Limits the height of the box to the given value times {@link FormGraphics#dheight}.
+	 * The limit also applies to all boxes within this box.
 	 * @param maxGrowY a value of <tt>0.0</tt> or smaller is used as "no limit".
 	 * A value between 0 and 1 is divided by 1.
 	 */
 	public void setMaxGrowY(double maxGrowY) {
 		this.maxGrowY = (maxGrowY <= 0.0 ? 0.0 : maxGrowY < 1.0 ? 1.0 / maxGrowY : maxGrowY);
+		updateEffectiveMaxGrow(true);
+	}
+
+	/**
+	 * The smallest max-grow width of this box and all parent boxes, <tt>0.0</tt> if there is no limit.
+	 */
+	public double getEffectiveMaxGrowX() {
+		return effectiveMaxGrowX;
+	}
+
+	/**
+	 * The smallest max-grow height of this box and all parent boxes, <tt>0.0</tt> if there is no limit.
+	 */
+	public double getEffectiveMaxGrowY() {
+		return effectiveMaxGrowY;
+	}
+
+	/**
+	 * Re-calculates the effective max-grow sizes from the max-grow sizes of this box
+	 * and the effective max-grow sizes of the nearest parent box.
+	 * @param propagate if true and the effective max-grow sizes changed, 
+	 * the boxes within this box are updated as well.
+	 */
+	protected void updateEffectiveMaxGrow(boolean propagate) {
+
+		double limitX = maxGrowX;
+		double limitY = maxGrowY;
+		Container parent = getParent();
+		while (parent != null && !(parent instanceof AbstractBox)) {
+			parent = parent.getParent();
+		}
+		if (parent != null) {
+			limitX = smallestLimit(limitX, ((AbstractBox) parent).getEffectiveMaxGrowX());
+			limitY = smallestLimit(limitY, ((AbstractBox) parent).getEffectiveMaxGrowY());
+		}
+		if (limitX == effectiveMaxGrowX && limitY == effectiveMaxGrowY) {
+			return;
+		}
+		effectiveMaxGrowX = limitX;
+		effectiveMaxGrowY = limitY;
+		if (getParent() != null) {
+			revalidate();
+		}
+		if (propagate) {
+			updateEffectiveMaxGrowWithin(this);
+		}
+	}
+
+	protected static double smallestLimit(double limit, double parentLimit) {
+		return (parentLimit > 0.0 && (limit <= 0.0 || limit > parentLimit) ? parentLimit : limit);
+	}
+
+	protected static void updateEffectiveMaxGrowWithin(Container c) {
+
+		for (int i = 0; i < c.getComponentCount(); i++) {
+			Component child = c.getComponent(i);
+			if (child instanceof AbstractBox) {
+				((AbstractBox) child).updateEffectiveMaxGrow(true);
+			} else if (child instanceof Container) {
+				updateEffectiveMaxGrowWithin((Container) child);
+			}
+		}
+	}
+
+	/**
+	 * Updates the effective max-grow sizes of added boxes.
+	 */
+	@Override
+	protected void addImpl(Component comp, Object constraints, int index) {
+
+		super.addImpl(comp, constraints, index);
+		if (comp instanceof AbstractBox) {
+			((AbstractBox) comp).updateEffectiveMaxGrow(true);
+		} else if (comp instanceof Container) {
+			updateEffectiveMaxGrowWithin((Container) comp);
+		}
+	}
+
+	/**
+	 * Updates the effective max-grow sizes in case this box was added to a container that is not a box.
+	 * Parent containers are notified first so there is no need to update the boxes within this box.
+	 */
+	@Override
+	public void addNotify() {
+
+		super.addNotify();
+		updateEffectiveMaxGrow(false);
 	}
 
 	/**
 	 * Used by {@link FormLayoutManager} to limit the maximum size of all components in the container,
-	 * to the maximum grow-size set in this container-box.
+	 * to the effective maximum grow-size of this container-box.
 	 * See {@link #setMaxGrowX(double)} and {@link #setMaxGrowY(double)}.
-	 * @param maxLayoutSize the maximum size of all components in the container 
-	 * @return the maximum size limited to the maximum grow-size of this container
+	 * @param maxLayoutSize the maximum size of all components in the container, 
+	 * the size is updated (no new dimension is created). 
+	 * @return the given maximum size limited to the maximum grow-size of this container
 	 */
 	public Dimension withinMaxGrow(Dimension maxLayoutSize) {
 
-		if (getMaxGrowX() <= 0.0 && getMaxGrowY() <= 0.0) {
-			return maxLayoutSize;
-		}
-		int maxWidth = maxLayoutSize.width;
-		if (getMaxGrowX() > 0.0) {
-			maxWidth =  FormGraphics.roundup(getFormGraphics().dwidth * getMaxGrowX()); 
+		if (effectiveMaxGrowX > 0.0) {
+			int maxWidth = FormGraphics.roundup(getFormGraphics().dwidth * effectiveMaxGrowX); 
 			maxWidth = FormConstraints.wihtinWindowWidth(getFormGraphics(), maxWidth);
-			if (maxWidth > maxLayoutSize.width) {
-				maxWidth = maxLayoutSize.width;
+			if (maxWidth < maxLayoutSize.width) {
+				maxLayoutSize.width = maxWidth;
 			}
 		}
-		int maxHeight = maxLayoutSize.height;
-		if (getMaxGrowY() > 0.0) {
-			maxHeight = FormGraphics.roundup(getFormGraphics().dheight * getMaxGrowY());
+		if (effectiveMaxGrowY > 0.0) {
+			int maxHeight = FormGraphics.roundup(getFormGraphics().dheight * effectiveMaxGrowY);
 			maxHeight = FormConstraints.wihtinWindowHeight(getFormGraphics(), maxHeight);
-			if (maxHeight > maxLayoutSize.height) {
-				maxHeight = maxLayoutSize.height;
+			if (maxHeight < maxLayoutSize.height) {
+				maxLayoutSize.height = maxHeight;
 			}
 		}
-		maxLayoutSize = new Dimension(maxWidth, maxHeight);
 		return maxLayoutSize;
 	}
 	
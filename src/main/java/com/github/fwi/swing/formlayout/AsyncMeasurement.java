@@ -0,0 +1,195 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.EventQueue;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.swing.Icon;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the sizes of expensive components (e.g. labels with large HTML text)
+ * outside the event dispatch thread, for components without form-constraints.
+ * <br>A component marked via {@link #setAsync(JComponent)} gets a placeholder size
+ * (the default size from {@link FormGraphics}) until the sizes are measured.
+ * The detached copy of the component is created on the event dispatch thread,
+ * the text is set and the sizes are measured on a (daemon) measurement thread.
+ * When the sizes are available, only the component is measured again in the layout
+ * (see {@link FormLayoutManager#invalidateComponent(Component)}).
+ * <br>Sizes are measured again when the text, font, icon or insets of the component change,
+ * the previous sizes are used until the new sizes are available.
+ * <br>Only labels are supported: the sizes of a label do not depend on the width of the label.
+ * Text components such as editor panes are not supported, the preferred height of wrapping text
+ * depends on the current width and the document can not be copied outside the event dispatch thread.
+ * <p>
+ * Used by {@link ComponentSizes}.
+ */
+public class AsyncMeasurement {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncMeasurement.class);
+
+	private static class ExecutorHolder {
+		private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "formlayout-measurement");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Marks a {@link JLabel} for asynchronous measurement,
+	 * see also {@link #setAsync(JComponent, Function)}.
+	 */
+	public static void setAsync(JComponent c) {
+
+		if (c instanceof JLabel) {
+			setAsync(c, AsyncMeasurement::detachedLabel);
+		} else {
+			throw new IllegalArgumentException("No detached copy available for " + c.getClass().getName());
+		}
+	}
+
+	/**
+	 * Marks a component for asynchronous measurement.
+	 * The sizes of the component must not depend on the (current) size of the component.
+	 * @param detachedCopy called on the event dispatch thread to copy the state of the component that determines the sizes.
+	 * The returned supplier is called on the measurement thread and returns the detached component that is measured.
+	 */
+	public static void setAsync(JComponent c, Function<JComponent, Supplier<Component>> detachedCopy) {
+
+		c.putClientProperty(AsyncMeasurement.class, new AsyncMeasurement(detachedCopy));
+		c.revalidate();
+	}
+
+	public static void removeAsync(JComponent c) {
+
+		c.putClientProperty(AsyncMeasurement.class, null);
+		c.revalidate();
+	}
+
+	public static boolean isAsync(Component c) {
+		return (c instanceof JComponent && ((JComponent) c).getClientProperty(AsyncMeasurement.class) != null);
+	}
+
+	/**
+	 * Returns the min, pref and max-size (in that order) of a component marked for asynchronous measurement.
+	 * Starts a measurement when the component has no sizes or changed since the last measurement.
+	 * Must be called on the event dispatch thread.
+	 * @return the measured sizes, or placeholder sizes when the component was not measured yet,
+	 * or null if the component is not marked for asynchronous measurement.
+	 */
+	public static Dimension[] getSizes(Component c, FormGraphics fg) {
+
+		if (!(c instanceof JComponent)) {
+			return null;
+		}
+		AsyncMeasurement am = (AsyncMeasurement) ((JComponent) c).getClientProperty(AsyncMeasurement.class);
+		return (am == null ? null : am.sizesFor((JComponent) c, fg));
+	}
+
+	/**
+	 * Creates the copy (and the UI delegate of the copy) on the event dispatch thread,
+	 * the (HTML) text is set on the measurement thread.
+	 */
+	protected static Supplier<Component> detachedLabel(JComponent c) {
+
+		JLabel l = (JLabel) c;
+		String text = l.getText();
+		JLabel copy = new JLabel(null, l.getIcon(), JLabel.LEADING);
+		copy.setFont(l.getFont());
+		copy.setBorder(l.getBorder());
+		copy.setIconTextGap(l.getIconTextGap());
+		copy.setHorizontalTextPosition(l.getHorizontalTextPosition());
+		copy.setVerticalTextPosition(l.getVerticalTextPosition());
+		return () -> {
+			copy.setText(text);
+			return copy;
+		};
+	}
+
+	protected final Function<JComponent, Supplier<Component>> detachedCopy;
+	protected Dimension[] sizes;
+	protected List<Object> sizesKey;
+	protected List<Object> pendingKey;
+
+	protected AsyncMeasurement(Function<JComponent, Supplier<Component>> detachedCopy) {
+		super();
+		this.detachedCopy = detachedCopy;
+	}
+
+	protected Dimension[] sizesFor(JComponent c, FormGraphics fg) {
+
+		List<Object> key = createKey(c);
+		if (sizes != null && key.equals(sizesKey)) {
+			return copy(sizes);
+		}
+		if (!key.equals(pendingKey)) {
+			pendingKey = key;
+			Supplier<Component> copy = detachedCopy.apply(c);
+			ExecutorHolder.executor.execute(() -> measure(c, key, copy));
+		}
+		if (sizes != null) {
+			return copy(sizes);
+		}
+		Dimension placeholder = new Dimension(fg.dwidth, fg.dheight);
+		return new Dimension[] { placeholder, new Dimension(placeholder), new Dimension(placeholder) };
+	}
+
+	/**
+	 * Runs on the measurement thread.
+	 */
+	protected void measure(JComponent c, List<Object> key, Supplier<Component> copy) {
+
+		Dimension[] measured;
+		try {
+			Component detached = copy.get();
+			measured = new Dimension[] { detached.getMinimumSize(), detached.getPreferredSize(), detached.getMaximumSize() };
+		} catch (Exception e) {
+			log.warn("Unable to measure {} - {}", c.getClass().getSimpleName(), e.toString());
+			return;
+		}
+		if (log.isTraceEnabled()) {
+			log.trace("Measured {} - {}", c.getClass().getSimpleName(), measured[1]);
+		}
+		EventQueue.invokeLater(() -> apply(c, key, measured));
+	}
+
+	protected void apply(JComponent c, List<Object> key, Dimension[] measured) {
+
+		if (!key.equals(pendingKey)) {
+			// a newer measurement is pending.
+			return;
+		}
+		pendingKey = null;
+		sizes = measured;
+		sizesKey = key;
+		if (c.getParent() != null && c.getParent().getLayout() instanceof FormLayoutManager) {
+			((FormLayoutManager) c.getParent().getLayout()).invalidateComponent(c);
+		}
+	}
+
+	/**
+	 * The state of the component that determines the sizes.
+	 */
+	protected List<Object> createKey(JComponent c) {
+
+		String text = (c instanceof JLabel ? ((JLabel) c).getText() : null);
+		Icon icon = (c instanceof JLabel ? ((JLabel) c).getIcon() : null);
+		return Arrays.asList(c.getFont(), text, icon, c.getInsets());
+	}
+
+	protected static Dimension[] copy(Dimension[] sizes) {
+		return new Dimension[] { new Dimension(sizes[0]), new Dimension(sizes[1]), new Dimension(sizes[2]) };
+	}
+
+}
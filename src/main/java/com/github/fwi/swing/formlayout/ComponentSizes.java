@@ -5,6 +5,9 @@ import java.awt.Dimension;
 
 /**
  * Calculates and caches sizes of a component given constraints (if any).
+ * If the component is a member of a {@link SizeGroup}, the shared size from the group is used.
+ * Sizes of components without constraints are taken from the {@link MeasurementCache} when enabled
+ * or from the {@link AsyncMeasurement} when the component is marked for it.
  * @author frederik
  *
  */
@@ -13,23 +16,36 @@ public class ComponentSizes {
 	protected Component c;
 	protected FormConstraints fc;
 	protected FormGraphics fg;
+	protected SizeGroup sizeGroup;
 	
 	private Dimension min, pref, max;
 	
 	public ComponentSizes(Component c, FormConstraints fc, FormGraphics fg) {
+		this(c, fc, fg, null);
+	}
+
+	public ComponentSizes(Component c, FormConstraints fc, FormGraphics fg, SizeGroup sizeGroup) {
 		super();
 		this.c = c;
 		this.fc = fc;
 		this.fg = fg;
+		this.sizeGroup = sizeGroup;
 	}
 	
 	public Dimension minSize() {
 		
 		if (min == null) {
-			if (fc == null) {
+			if (fc == null && c instanceof FixedGap) {
+				min = pref = max = ((FixedGap) c).getGapSize();
+			} else if (fc == null && measureCached()) {
+				return min;
+			} else if (fc == null) {
 				min = c.getMinimumSize();
 			} else {
-				min = new Dimension(fc.minWidth(fg), fc.minHeight(fg));
+				min = fc.minSize(fg);
+			}
+			if (sizeGroup != null) {
+				min = sizeGroup.withGroupSize(min, sizeGroup.getMinSize());
 			}
 		}
 		return min;
@@ -38,10 +54,17 @@ public class ComponentSizes {
 	public Dimension prefSize() {
 		
 		if (pref == null) {
-			if (fc == null) {
+			if (fc == null && c instanceof FixedGap) {
+				return minSize();
+			} else if (fc == null && measureCached()) {
+				return pref;
+			} else if (fc == null) {
 				pref = c.getPreferredSize();
 			} else {
-				pref = new Dimension(fc.prefWidth(fg), fc.prefHeight(fg));
+				pref = fc.prefSize(fg);
+			}
+			if (sizeGroup != null) {
+				pref = sizeGroup.withGroupSize(pref, sizeGroup.getPrefSize());
 			}
 		}
 		return pref;
@@ -50,15 +73,48 @@ public class ComponentSizes {
 	public Dimension maxSize() {
 		
 		if (max == null) {
-			if (fc == null) {
+			if (fc == null && c instanceof FixedGap) {
+				return minSize();
+			} else if (fc == null && measureCached()) {
+				return max;
+			} else if (fc == null) {
 				max = c.getMaximumSize();
 			} else {
-				max = new Dimension(fc.maxWidth(fg), fc.maxHeight(fg));
+				max = fc.maxSize(fg);
+			}
+			if (sizeGroup != null) {
+				max = sizeGroup.withGroupSize(max, sizeGroup.getMaxSize());
 			}
 		}
 		return max;
 	}
 
+	/**
+	 * Sets all sizes from the {@link AsyncMeasurement} (if the component is marked for it)
+	 * or the {@link MeasurementCache} (if enabled), including the shared size from the size-group.
+	 * @return false if the sizes are not available from either.
+	 */
+	protected boolean measureCached() {
+
+		Dimension[] sizes = AsyncMeasurement.getSizes(c, fg);
+		if (sizes == null) {
+			MeasurementCache cache = MeasurementCache.getInstance();
+			sizes = (cache == null ? null : cache.getSizes(c));
+		}
+		if (sizes == null) {
+			return false;
+		}
+		min = sizes[0];
+		pref = sizes[1];
+		max = sizes[2];
+		if (sizeGroup != null) {
+			min = sizeGroup.withGroupSize(min, sizeGroup.getMinSize());
+			pref = sizeGroup.withGroupSize(pref, sizeGroup.getPrefSize());
+			max = sizeGroup.withGroupSize(max, sizeGroup.getMaxSize());
+		}
+		return true;
+	}
+
 	protected void invalidateLayout() {
 		min = pref = max  = null;
 	}
@@ -0,0 +1,88 @@
+package com.github.fwi.swing.formlayout;
+
+/**
+ * A Fenwick tree (binary indexed tree) of extents (non-negative sizes) used by the {@link FormLayoutManager}
+ * to find the component at a position and the position of a component in O(log n).
+ * <br>The extent of a component is the size in the layout direction plus the gap after the component
+ * (zero for invisible components).
+ */
+public class ExtentTree {
+
+	protected final int[] tree;
+	protected final int[] extents;
+
+	/**
+	 * Builds the tree in O(n).
+	 * @param extents the extent per index, the array is not copied.
+	 */
+	public ExtentTree(int[] extents) {
+		super();
+		this.extents = extents;
+		tree = new int[extents.length + 1];
+		for (int i = 1; i < tree.length; i++) {
+			tree[i] += extents[i - 1];
+			int parent = i + (i & -i);
+			if (parent < tree.length) {
+				tree[parent] += tree[i];
+			}
+		}
+	}
+
+	public int size() {
+		return extents.length;
+	}
+
+	public int get(int index) {
+		return extents[index];
+	}
+
+	/**
+	 * Updates the extent at the index in O(log n).
+	 */
+	public void set(int index, int extent) {
+
+		int delta = extent - extents[index];
+		extents[index] = extent;
+		for (int i = index + 1; i < tree.length; i += (i & -i)) {
+			tree[i] += delta;
+		}
+	}
+
+	/**
+	 * The sum of the extents before the index, i.e. the offset of the index.
+	 */
+	public int offsetOf(int index) {
+
+		int sum = 0;
+		for (int i = Math.min(index, extents.length); i > 0; i -= (i & -i)) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+
+	public int total() {
+		return offsetOf(extents.length);
+	}
+
+	/**
+	 * The index for which {@code offsetOf(index) <= position < offsetOf(index + 1)},
+	 * or -1 if the position is outside the total extent.
+	 */
+	public int indexAt(int position) {
+
+		if (position < 0) {
+			return -1;
+		}
+		int index = 0;
+		int remaining = position;
+		for (int step = Integer.highestOneBit(extents.length); step > 0; step >>= 1) {
+			int next = index + step;
+			if (next < tree.length && tree[next] <= remaining) {
+				index = next;
+				remaining -= tree[next];
+			}
+		}
+		return (index < extents.length ? index : -1);
+	}
+
+}
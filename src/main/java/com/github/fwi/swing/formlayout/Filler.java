@@ -0,0 +1,20 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+
+/**
+ * An invisible lightweight component used as filler or gap in a form (see {@link FormConstraints#FILLERX} 
+ * and {@link FixedGap}). 
+ * <br>Unlike a {@link java.awt.Canvas}, a filler has no native (heavyweight) peer, 
+ * does not paint and can not receive the focus.
+ */
+public class Filler extends Component {
+
+	private static final long serialVersionUID = 2256318811425178227L;
+
+	public Filler() {
+		super();
+		setFocusable(false);
+	}
+
+}
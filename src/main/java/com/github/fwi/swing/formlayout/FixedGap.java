@@ -1,27 +1,44 @@
 package com.github.fwi.swing.formlayout;
 
-import java.awt.Canvas;
 import java.awt.Dimension;
 
 import javax.swing.SwingConstants;
 
-public class FixedGap extends Canvas {
+/**
+ * A filler with a fixed size of {@link FormGraphics#hgap} or {@link FormGraphics#vgap} 
+ * depending on the direction.
+ */
+public class FixedGap extends Filler {
 
 	private static final long serialVersionUID = -5131638878856178231L;
 	
 	protected FormGraphics formGraphics; 
 	protected int direction;
+	private transient Dimension gapSize;
 	
 	public FixedGap(FormGraphics formGraphics, int direction) {
 		super();
 		this.formGraphics = formGraphics;
 		this.direction = direction;
 	}
+
+	/**
+	 * The size of the gap, the same instance is returned as long as the gap in the form-graphics does not change.
+	 * Used by {@link ComponentSizes}, the returned dimension must not be changed.
+	 */
+	public Dimension getGapSize() {
+
+		int gap = (direction == SwingConstants.HORIZONTAL ? formGraphics.hgap : formGraphics.vgap);
+		Dimension size = gapSize;
+		if (size == null || (direction == SwingConstants.HORIZONTAL ? size.width : size.height) != gap) {
+			size = gapSize = (direction == SwingConstants.HORIZONTAL ? new Dimension(gap, 1) : new Dimension(1, gap));
+		}
+		return size;
+	}
 	
 	@Override
 	public Dimension getMinimumSize() {
-		return (direction == SwingConstants.HORIZONTAL ? 
-				new Dimension(formGraphics.hgap, 1) : new Dimension(1, formGraphics.vgap));
+		return new Dimension(getGapSize());
 	}
 
 	@Override
@@ -2,7 +2,14 @@ package com.github.fwi.swing.formlayout;
 
 import static com.github.fwi.swing.formlayout.FormGraphics.roundup;
 
+import java.awt.Dimension;
 import java.text.DecimalFormat;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +34,11 @@ import com.github.fwi.swing.formlayout.builder.SimpleFormBuilder;
  * <p>
  * Instances of this class can be re-used, no size-data is cached during the layout of components.
  * The {@link #copy()} function can be used to derive constraints.
+ * <br>Changes made via the setters (e.g. {@link #setSizex(double)}) are picked up by all {@link FormLayoutManager}s
+ * using the instance: only the components with these form-constraints are measured again.
+ * After changing the public fields directly, call {@link #fireChanged()}.
+ * <br>The shared constants ({@link #DEFAULT}, {@link #FILLERX}, {@link #FILLERY} and {@link #FILLERXY}) are immutable:
+ * the setters throw an {@link UnsupportedOperationException} and no listeners are registered, use {@link #copy()} instead.
  */
 public class FormConstraints {
 
@@ -37,11 +49,20 @@ public class FormConstraints {
 	 */
 
 	public static final String EMPTY_STRING = "";
+	/** Sizes are calculated in thousandths (fixed-point) to get the same rounding results on all platforms. */
+	public static final long FIXED_POINT = 1000L;
 	public static DecimalFormat toStringDf = new DecimalFormat("#.##"); 
-	public static final FormConstraints DEFAULT = new FormConstraints("sizexy:growxy:shrinkxy:1");
-	public static final FormConstraints FILLERX = new FormConstraints("growx:0,shrinkx:0");
-	public static final FormConstraints FILLERY = new FormConstraints("growy:0,shrinky:0");
-	public static final FormConstraints FILLERXY = new FormConstraints("growxy:0,shrinkxy:0");
+	public static final FormConstraints DEFAULT = immutable("sizexy:growxy:shrinkxy:1");
+	public static final FormConstraints FILLERX = immutable("growx:0,shrinkx:0");
+	public static final FormConstraints FILLERY = immutable("growy:0,shrinky:0");
+	public static final FormConstraints FILLERXY = immutable("growxy:0,shrinkxy:0");
+
+	private static FormConstraints immutable(String constraints) {
+
+		FormConstraints fc = new FormConstraints(constraints);
+		fc.immutable = true;
+		return fc;
+	}
 
 	public static FormConstraints square() {
 		return square(FormGraphics.getInstance());
@@ -55,6 +76,9 @@ public class FormConstraints {
 	public double sizex, sizey;
 	public double growx, growy, shrinkx, shrinky;
 
+	private Set<ChangeListener> listeners;
+	private boolean immutable;
+
 	public FormConstraints() {
 		this(null);
 	}
@@ -151,6 +175,126 @@ public class FormConstraints {
 				+ toString(shrinkx) + " / " + toString(shrinky);
 	}
 
+	/**
+	 * True for the shared constants (e.g. {@link #DEFAULT}) that can not be changed.
+	 */
+	public boolean isImmutable() {
+		return immutable;
+	}
+
+	protected void checkMutable() {
+
+		if (immutable) {
+			throw new UnsupportedOperationException("Shared form-constraints can not be changed, use a copy: " + this);
+		}
+	}
+
+	/**
+	 * Registers a listener that is notified when a value changes.
+	 * Listeners are weakly referenced: the listener must be referenced elsewhere to stay registered.
+	 * Immutable form-constraints do not change and do not register listeners.
+	 */
+	public synchronized void addChangeListener(ChangeListener l) {
+
+		if (immutable) {
+			return;
+		}
+		if (listeners == null) {
+			listeners = Collections.newSetFromMap(new WeakHashMap<>());
+		}
+		listeners.add(l);
+	}
+
+	public synchronized void removeChangeListener(ChangeListener l) {
+
+		if (listeners != null) {
+			listeners.remove(l);
+		}
+	}
+
+	/**
+	 * Notifies registered listeners (e.g. {@link FormLayoutManager}s) that one or more values changed.
+	 */
+	public void fireChanged() {
+
+		ChangeListener[] ls;
+		synchronized (this) {
+			if (listeners == null || listeners.isEmpty()) {
+				return;
+			}
+			ls = listeners.toArray(new ChangeListener[listeners.size()]);
+		}
+		ChangeEvent e = new ChangeEvent(this);
+		for (ChangeListener l : ls) {
+			if (l != null) {
+				l.stateChanged(e);
+			}
+		}
+	}
+
+	public void setSizex(double sizex) {
+		checkMutable();
+		if (this.sizex != sizex) {
+			this.sizex = sizex;
+			fireChanged();
+		}
+	}
+
+	public void setSizey(double sizey) {
+		checkMutable();
+		if (this.sizey != sizey) {
+			this.sizey = sizey;
+			fireChanged();
+		}
+	}
+
+	public void setGrowx(double growx) {
+		checkMutable();
+		if (this.growx != growx) {
+			this.growx = growx;
+			fireChanged();
+		}
+	}
+
+	public void setGrowy(double growy) {
+		checkMutable();
+		if (this.growy != growy) {
+			this.growy = growy;
+			fireChanged();
+		}
+	}
+
+	public void setShrinkx(double shrinkx) {
+		checkMutable();
+		if (this.shrinkx != shrinkx) {
+			this.shrinkx = shrinkx;
+			fireChanged();
+		}
+	}
+
+	public void setShrinky(double shrinky) {
+		checkMutable();
+		if (this.shrinky != shrinky) {
+			this.shrinky = shrinky;
+			fireChanged();
+		}
+	}
+
+	/**
+	 * Copies the values from the other form-constraints and notifies listeners once.
+	 */
+	public void setValues(FormConstraints other) {
+
+		checkMutable();
+		sizex = other.sizex;
+		sizey = other.sizey;
+		growx = other.growx;
+		growy = other.growy;
+		shrinkx = other.shrinkx;
+		shrinky = other.shrinky;
+		fireChanged();
+	}
+
 	public FormConstraints copy() {
 
 		FormConstraints copy = new FormConstraints(EMPTY_STRING);
@@ -164,7 +308,7 @@ public class FormConstraints {
 	}
 
 	public int minWidth(FormGraphics fg) {
-		int w = roundup(prefWidthExact(fg) * shrinking(shrinkx));
+		int w = shrunk(prefWidthFixed(fg), fixed(shrinkx));
 		return wihtinWindowWidth(fg, w);
 	}
 	
@@ -173,7 +317,7 @@ public class FormConstraints {
 	}
 
 	public int minHeight(FormGraphics fg) {
-		int h = roundup(prefHeightExact(fg) * shrinking(shrinky));
+		int h = shrunk(prefHeightFixed(fg), fixed(shrinky));
 		return wihtinWindowHeight(fg, h);
 	}
 
@@ -181,34 +325,95 @@ public class FormConstraints {
 		return (h < 0 ? 0 : h > fg.maxWindowHeight ? fg.maxWindowHeight : h);
 	}
 
-	protected double prefWidthExact(FormGraphics fg) {
-		return fg.dwidth * sizex;
+	/**
+	 * The preferred width in thousandths of a pixel.
+	 */
+	protected long prefWidthFixed(FormGraphics fg) {
+		return fg.dwidth * fixed(sizex);
 	}
 
-	protected double prefHeightExact(FormGraphics fg) {
-		return fg.dheight * sizey;
+	/**
+	 * The preferred height in thousandths of a pixel.
+	 */
+	protected long prefHeightFixed(FormGraphics fg) {
+		return fg.dheight * fixed(sizey);
 	}
 
 	public int prefWidth(FormGraphics fg) {
-		int w = roundup(prefWidthExact(fg));
+		int w = roundup(prefWidthFixed(fg), FIXED_POINT);
 		return wihtinWindowWidth(fg, w);
 	}
 
 	public int prefHeight(FormGraphics fg) {
-		int h = roundup(prefHeightExact(fg));
+		int h = roundup(prefHeightFixed(fg), FIXED_POINT);
 		return wihtinWindowHeight(fg, h);
 	}
 
 	public int maxWidth(FormGraphics fg) {
-		int w = (growx <= 0.0 ? fg.maxWindowWidth : roundup(prefWidthExact(fg) * growing(growx)));
+		long grow = fixed(growx);
+		int w = (grow <= 0L ? fg.maxWindowWidth : grown(prefWidthFixed(fg), grow));
 		return wihtinWindowWidth(fg, w);
 	}
 
 	public int maxHeight(FormGraphics fg) {
-		int h = (growy <= 0.0 ? fg.maxWindowHeight : roundup(prefHeightExact(fg) * growing(growy)));
+		long grow = fixed(growy);
+		int h = (grow <= 0L ? fg.maxWindowHeight : grown(prefHeightFixed(fg), grow));
 		return wihtinWindowHeight(fg, h);
 	}
-	
+
+	/**
+	 * The minimum width and height, used by {@link ComponentSizes}.
+	 */
+	public Dimension minSize(FormGraphics fg) {
+		return new Dimension(minWidth(fg), minHeight(fg));
+	}
+
+	/**
+	 * The preferred width and height, used by {@link ComponentSizes}.
+	 */
+	public Dimension prefSize(FormGraphics fg) {
+		return new Dimension(prefWidth(fg), prefHeight(fg));
+	}
+
+	/**
+	 * The maximum width and height, used by {@link ComponentSizes}.
+	 */
+	public Dimension maxSize(FormGraphics fg) {
+		return new Dimension(maxWidth(fg), maxHeight(fg));
+	}
+
+	/**
+	 * A value in thousandths (the fixed-point representation used in size calculations).
+	 */
+	public static long fixed(double d) {
+		return Math.round(d * FIXED_POINT);
+	}
+
+	/**
+	 * Integer version of {@code roundup(pref * growing(grow))}, see {@link #growing(double)}.
+	 * @param pref size in thousandths of a pixel
+	 * @param grow grow-value in thousandths, larger than 0
+	 */
+	protected static int grown(long pref, long grow) {
+
+		if (grow < FIXED_POINT) {
+			return roundup(pref, grow);
+		}
+		// pref * grow does not fit for very large grow-values, the size is limited to the window size anyway.
+		return (Math.abs(pref) > Long.MAX_VALUE / grow ? (pref < 0L ? 0 : Integer.MAX_VALUE)
+				: roundup(pref * grow, FIXED_POINT * FIXED_POINT));
+	}
+
+	/**
+	 * Integer version of {@code roundup(pref * shrinking(shrink))}, see {@link #shrinking(double)}.
+	 * @param pref size in thousandths of a pixel
+	 * @param shrink shrink-value in thousandths
+	 */
+	protected static int shrunk(long pref, long shrink) {
+		return (shrink <= 0L ? 0 : shrink > FIXED_POINT ? roundup(pref, shrink)
+				: roundup(pref * shrink, FIXED_POINT * FIXED_POINT));
+	}
+
 	/**
 	 * Returns given value if value is 1 or greater, else divides value by 1.
 	 * @return value 1 or larger
@@ -0,0 +1,382 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.FocusTraversalPolicy;
+import java.awt.Window;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.swing.LayoutFocusTraversalPolicy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A focus traversal policy that uses the order of the components in the form (the order in which components were added
+ * to the boxes) instead of sorting all components by screen position on each Tab press.
+ * <br>Visible components are kept in a linked list (depth first, a container before its components)
+ * that is updated when components are added, removed, shown or hidden.
+ * Moving a component within its parent ({@link Container#setComponentZOrder(Component, int)}) fires no event:
+ * call {@link #componentMoved(Component)} after such a move (as done by the {@link com.github.fwi.swing.formlayout.builder.FormReconciler}).
+ * Finding the next or previous component only skips the components in between that can not receive the focus (e.g. labels).
+ * <br>Components within a focus cycle root or a focus traversal policy provider (below the root) are not in the list,
+ * the policy of the container is used for these components.
+ * Whether a component can receive the focus is determined by {@link LayoutFocusTraversalPolicy}.
+ * <p>
+ * Install with {@link #install(Container)}. Must be used on the event dispatch thread.
+ */
+public class FormFocusTraversalPolicy extends LayoutFocusTraversalPolicy {
+
+	private static final long serialVersionUID = -3585393843581327307L;
+
+	private static final Logger log = LoggerFactory.getLogger(FormFocusTraversalPolicy.class);
+
+	/**
+	 * Sets a new form focus traversal policy for the container.
+	 * A container that is not a window becomes a focus traversal policy provider:
+	 * Tab moves out of the container to the next component after the last component in the container.
+	 */
+	public static FormFocusTraversalPolicy install(Container root) {
+
+		FormFocusTraversalPolicy policy = new FormFocusTraversalPolicy(root);
+		root.setFocusTraversalPolicy(policy);
+		if (!(root instanceof Window) && !root.isFocusCycleRoot()) {
+			root.setFocusTraversalPolicyProvider(true);
+		}
+		return policy;
+	}
+
+	protected static class Link {
+
+		final Component c;
+		Link prev, next;
+
+		Link(Component c) {
+			this.c = c;
+		}
+	}
+
+	protected final Container root;
+	protected final Map<Component, Link> links = new IdentityHashMap<>();
+	protected Link head, tail;
+
+	protected final ContainerListener containerListener = new ContainerListener() {
+		@Override
+		public void componentAdded(ContainerEvent e) {
+			added(e.getChild());
+		}
+		@Override
+		public void componentRemoved(ContainerEvent e) {
+			removed(e.getChild());
+		}
+	};
+
+	protected final ComponentListener visibilityListener = new ComponentAdapter() {
+		@Override
+		public void componentShown(ComponentEvent e) {
+			shown(e.getComponent());
+		}
+		@Override
+		public void componentHidden(ComponentEvent e) {
+			hidden(e.getComponent());
+		}
+	};
+
+	/**
+	 * Updates the focus order of a component moved within its parent via {@link Container#setComponentZOrder(Component, int)},
+	 * for the form focus traversal policies of all parent containers.
+	 */
+	public static void componentMoved(Component c) {
+
+		for (Container parent = c.getParent(); parent != null; parent = parent.getParent()) {
+			if (parent.isFocusTraversalPolicySet() && parent.getFocusTraversalPolicy() instanceof FormFocusTraversalPolicy) {
+				((FormFocusTraversalPolicy) parent.getFocusTraversalPolicy()).reorder(c);
+			}
+		}
+	}
+
+	/**
+	 * Use {@link #install(Container)}.
+	 */
+	protected FormFocusTraversalPolicy(Container root) {
+		super();
+		this.root = root;
+		root.addContainerListener(containerListener);
+		head = tail = new Link(root);
+		links.put(root, head);
+		for (Component c : root.getComponents()) {
+			added(c);
+		}
+	}
+
+	/**
+	 * The amount of components in the linked list (the root included).
+	 */
+	public int getLinkedCount() {
+		return links.size();
+	}
+
+	/**
+	 * True if the components within the container are not in the list (traversal is left to the policy of the container).
+	 */
+	protected boolean isDelegating(Component c) {
+		return (c != root && c instanceof Container
+				&& (((Container) c).isFocusCycleRoot() || ((Container) c).isFocusTraversalPolicyProvider()));
+	}
+
+	protected void listen(Component c) {
+
+		c.addComponentListener(visibilityListener);
+		if (c instanceof Container && !isDelegating(c)) {
+			Container container = (Container) c;
+			container.addContainerListener(containerListener);
+			for (Component child : container.getComponents()) {
+				listen(child);
+			}
+		}
+	}
+
+	protected void unlisten(Component c) {
+
+		c.removeComponentListener(visibilityListener);
+		if (c instanceof Container && !isDelegating(c)) {
+			Container container = (Container) c;
+			container.removeContainerListener(containerListener);
+			for (Component child : container.getComponents()) {
+				unlisten(child);
+			}
+		}
+	}
+
+	protected void added(Component c) {
+
+		listen(c);
+		link(c);
+	}
+
+	protected void removed(Component c) {
+
+		unlisten(c);
+		unlink(c);
+	}
+
+	/**
+	 * Links the component (and the components within the component) again at its current position in the parent.
+	 */
+	public void reorder(Component c) {
+
+		if (links.containsKey(c)) {
+			unlink(c);
+			link(c);
+		}
+	}
+
+	protected void shown(Component c) {
+
+		if (!links.containsKey(c)) {
+			link(c);
+		}
+	}
+
+	protected void hidden(Component c) {
+		unlink(c);
+	}
+
+	/**
+	 * Links the component and the visible components within the component after the preceding linked component,
+	 * if the component is visible and the parent is linked.
+	 */
+	protected void link(Component c) {
+
+		Container parent = c.getParent();
+		if (!c.isVisible() || parent == null || !links.containsKey(parent) || links.containsKey(c)) {
+			return;
+		}
+		Link pred = links.get(lastLinked(precedingSibling(parent, c), parent));
+		Link after = pred.next;
+		Link[] chain = new Link[] { pred };
+		appendVisible(c, chain);
+		chain[0].next = after;
+		if (after == null) {
+			tail = chain[0];
+		} else {
+			after.prev = chain[0];
+		}
+		if (log.isTraceEnabled()) {
+			log.trace("Linked {}, {} components in focus order", c.getClass().getSimpleName(), links.size());
+		}
+	}
+
+	/**
+	 * Appends the component and all visible components within the component after the last link (chain[0]).
+	 */
+	protected void appendVisible(Component c, Link[] chain) {
+
+		Link l = new Link(c);
+		links.put(c, l);
+		l.prev = chain[0];
+		chain[0].next = l;
+		chain[0] = l;
+		if (c instanceof Container && !isDelegating(c)) {
+			for (Component child : ((Container) c).getComponents()) {
+				if (child.isVisible()) {
+					appendVisible(child, chain);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The closest linked sibling before the component, or null.
+	 */
+	protected Component precedingSibling(Container parent, Component c) {
+
+		for (int i = parent.getComponentZOrder(c) - 1; i >= 0; i--) {
+			Component sibling = parent.getComponent(i);
+			if (links.containsKey(sibling)) {
+				return sibling;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The last linked component within the component (depth first), the component itself if there is none,
+	 * or the fallback if the component is null.
+	 */
+	protected Component lastLinked(Component c, Component fallback) {
+
+		if (c == null) {
+			return fallback;
+		}
+		while (c instanceof Container && !isDelegating(c)) {
+			Container container = (Container) c;
+			Component last = null;
+			for (int i = container.getComponentCount() - 1; i >= 0 && last == null; i--) {
+				if (links.containsKey(container.getComponent(i))) {
+					last = container.getComponent(i);
+				}
+			}
+			if (last == null) {
+				break;
+			}
+			c = last;
+		}
+		return c;
+	}
+
+	/**
+	 * Removes the component and all components within the component from the list.
+	 */
+	protected void unlink(Component c) {
+
+		Link first = links.get(c);
+		if (first == null || c == root) {
+			return;
+		}
+		Link last = links.get(lastLinked(c, c));
+		Link before = first.prev;
+		Link after = last.next;
+		for (Link l = first; l != after; l = l.next) {
+			links.remove(l.c);
+		}
+		before.next = after;
+		if (after == null) {
+			tail = before;
+		} else {
+			after.prev = before;
+		}
+	}
+
+	/**
+	 * The component to focus for a linked component: the component itself, a component within a delegating container or null.
+	 */
+	protected Component candidate(Component c, boolean forward) {
+
+		if (c == root) {
+			return null;
+		}
+		if (isDelegating(c)) {
+			Container container = (Container) c;
+			FocusTraversalPolicy policy = container.getFocusTraversalPolicy();
+			if (policy == null || !container.isShowing()) {
+				return null;
+			}
+			if (container.isFocusCycleRoot()) {
+				return policy.getDefaultComponent(container);
+			}
+			return (forward ? policy.getFirstComponent(container) : policy.getLastComponent(container));
+		}
+		return (accept(c) ? c : null);
+	}
+
+	protected Component find(Link l, boolean forward) {
+
+		for (; l != null; l = (forward ? l.next : l.prev)) {
+			Component c = candidate(l.c, forward);
+			if (c != null) {
+				return c;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Component getComponentAfter(Container aContainer, Component aComponent) {
+
+		Link l = links.get(aComponent);
+		if (aContainer != root || l == null) {
+			return super.getComponentAfter(aContainer, aComponent);
+		}
+		// after a delegating container, continue after the components within the container.
+		Component c = find(l.next, true);
+		if (c == null && root.isFocusCycleRoot()) {
+			c = getFirstComponent(root);
+		}
+		return c;
+	}
+
+	@Override
+	public Component getComponentBefore(Container aContainer, Component aComponent) {
+
+		Link l = links.get(aComponent);
+		if (aContainer != root || l == null) {
+			return super.getComponentBefore(aContainer, aComponent);
+		}
+		Component c = find(l.prev, false);
+		if (c == null && root.isFocusCycleRoot()) {
+			c = getLastComponent(root);
+		}
+		return c;
+	}
+
+	@Override
+	public Component getFirstComponent(Container aContainer) {
+
+		if (aContainer != root) {
+			return super.getFirstComponent(aContainer);
+		}
+		return find(head, true);
+	}
+
+	@Override
+	public Component getLastComponent(Container aContainer) {
+
+		if (aContainer != root) {
+			return super.getLastComponent(aContainer);
+		}
+		return find(tail, false);
+	}
+
+	@Override
+	public Component getDefaultComponent(Container aContainer) {
+		return getFirstComponent(aContainer);
+	}
+
+}
@@ -106,7 +106,23 @@ public class FormGraphics {
 	 * Rounds double up to int, e.g 1.1 --> 2
 	 */
 	public static int roundup(double d) {
-		return new Long(Math.round(0.499 + d)).intValue();
+		return (int) Math.round(0.499 + d);
+	}
+
+	/**
+	 * Rounds the fraction up to int in the same manner as {@link #roundup(double)} 
+	 * (i.e. only a fraction smaller than 0.001 is rounded down) using integer arithmetic only.
+	 * <br>Results outside the integer range are returned as {@link Integer#MAX_VALUE} or {@link Integer#MIN_VALUE}.
+	 * @param den larger than 0
+	 */
+	public static int roundup(long num, long den) {
+
+		long r = Math.floorDiv(num, den);
+		// same as remainder * 1000 >= den without overflow.
+		if (Math.floorMod(num, den) >= (den - 1L) / 1000L + 1L) {
+			r++;
+		}
+		return (r > Integer.MAX_VALUE ? Integer.MAX_VALUE : r < Integer.MIN_VALUE ? Integer.MIN_VALUE : (int) r);
 	}
 	
 }
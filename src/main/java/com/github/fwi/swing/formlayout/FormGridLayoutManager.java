@@ -0,0 +1,171 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.ComponentOrientation;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Insets;
+
+import javax.swing.SwingConstants;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The grid mode of the {@link FormLayoutManager}: components are placed in cells,
+ * filling a row of the given amount of columns before starting on the next row.
+ * Invisible components do not take up a cell.
+ * <br>The width of a column is the largest width of all components in the column
+ * and the height of a row is the largest height of all components in the row.
+ * Column widths and row heights are calculated together in one pass over all components,
+ * using the {@link FormConstraints} of the components to grow and shrink columns and rows.
+ * A component smaller than the cell (i.e. it can not grow to the cell size) is placed at the leading edge of the cell.
+ * <p>
+ * Used by the {@link GridBox}, one grid replaces a {@link PageBox} with a {@link LineBox} per row
+ * (and the {@link MirrorBox}es that might be needed to keep the rows aligned).
+ * <br>As with the {@link FormLayoutManager}, an instance of this class can NOT be re-used.
+ */
+public class FormGridLayoutManager extends FormLayoutManager {
+
+	private static final Logger log = LoggerFactory.getLogger(FormGridLayoutManager.class);
+
+	protected int columns;
+
+	/*
+	 * Column and row sizes are calculated together with the layout sizes.
+	 */
+	protected int[] colMin, colPref, colMax;
+	protected int[] rowMin, rowPref, rowMax;
+
+	public FormGridLayoutManager(int columns) {
+		this(null, columns);
+	}
+
+	/**
+	 * @param columns the amount of columns per row, a value smaller than 1 is used as 1.
+	 */
+	public FormGridLayoutManager(FormGraphics graphics, int columns) {
+		super(graphics, SwingConstants.HORIZONTAL);
+		this.columns = Math.max(1, columns);
+	}
+
+	public int getColumns() { return columns; }
+
+	/**
+	 * Sets the amount of columns per row, a value smaller than 1 is used as 1.
+	 * The container must be revalidated after the change.
+	 */
+	public void setColumns(int columns) { this.columns = Math.max(1, columns); }
+
+	@Override
+	protected void calculateLayoutSizesSynced(Container target) {
+
+		int visibleComponents = 0;
+		for (Component c : target.getComponents()) {
+			if (c.isVisible()) {
+				visibleComponents++;
+			}
+		}
+		int cols = Math.min(columns, Math.max(1, visibleComponents));
+		int rows = (visibleComponents + columns - 1) / columns;
+		colMin = new int[cols];
+		colPref = new int[cols];
+		colMax = new int[cols];
+		rowMin = new int[rows];
+		rowPref = new int[rows];
+		rowMax = new int[rows];
+		int cell = 0;
+		for (Component c : target.getComponents()) {
+			if (!c.isVisible()) {
+				continue;
+			}
+			ComponentSizes cs = getSizes(c);
+			int col = cell % columns;
+			int row = cell / columns;
+			colMin[col] = Math.max(colMin[col], cs.minSize().width);
+			colPref[col] = Math.max(colPref[col], cs.prefSize().width);
+			colMax[col] = Math.max(colMax[col], cs.maxSize().width);
+			rowMin[row] = Math.max(rowMin[row], cs.minSize().height);
+			rowPref[row] = Math.max(rowPref[row], cs.prefSize().height);
+			rowMax[row] = Math.max(rowMax[row], cs.maxSize().height);
+			cell++;
+		}
+		Insets insets = target.getInsets();
+		int insetsWidth = insets.left + insets.right;
+		int insetsHeight = insets.top + insets.bottom;
+		int hgaps = (cols - 1) * graphics.hgap;
+		int vgaps = (rows > 0 ? (rows - 1) * graphics.vgap : 0);
+		minLayoutSize = new Dimension(sum(colMin) + hgaps + insetsWidth, sum(rowMin) + vgaps + insetsHeight);
+		prefLayoutSize = new Dimension(sum(colPref) + hgaps + insetsWidth, sum(rowPref) + vgaps + insetsHeight);
+		maxLayoutSize = new Dimension(sum(colMax) + hgaps + insetsWidth, sum(rowMax) + vgaps + insetsHeight);
+		if (target instanceof AbstractBox) {
+			maxLayoutSize = ((AbstractBox)target).withinMaxGrow(maxLayoutSize);
+		}
+		if (log.isTraceEnabled()) {
+			log.trace("{} calculated {} x {} grid sizes min {} / pref {} / max {}", logId(), cols, rows,
+					toString(minLayoutSize), toString(prefLayoutSize), toString(maxLayoutSize));
+		}
+	}
+
+	protected static int sum(int[] sizes) {
+
+		int total = 0;
+		for (int size : sizes) {
+			total += size;
+		}
+		return total;
+	}
+
+	@Override
+	protected void layoutContainerSynced(Container target) {
+
+		ensureLayoutSizesSynced(target);
+		int[] colSizes = trackSizes(target.getWidth() - prefLayoutSize.width, colMin, colPref, colMax);
+		int[] rowSizes = trackSizes(target.getHeight() - prefLayoutSize.height, rowMin, rowPref, rowMax);
+		boolean ltr = (target.getComponentOrientation() != ComponentOrientation.RIGHT_TO_LEFT);
+		Insets insets = target.getInsets();
+		int left = (ltr ? insets.left : target.getWidth() - insets.left);
+		int x = left;
+		int y = insets.top;
+		int cell = 0;
+		for (Component c : target.getComponents()) {
+			if (!c.isVisible()) {
+				continue;
+			}
+			int col = cell % columns;
+			int row = cell / columns;
+			if (col == 0 && row > 0) {
+				x = left;
+				y += rowSizes[row - 1] + graphics.vgap;
+			}
+			ComponentSizes cs = getSizes(c);
+			int sizex = within(colSizes[col], cs.minSize().width, cs.maxSize().width);
+			int sizey = within(rowSizes[row], cs.minSize().height, cs.maxSize().height);
+			c.setBounds(ltr ? x : x - sizex, y, sizex, sizey);
+			x = (ltr ? x + colSizes[col] + graphics.hgap : x - colSizes[col] - graphics.hgap);
+			cell++;
+			if (log.isTraceEnabled()) {
+				log.trace("{} {} bounds {}", logId(), c.getClass().getSimpleName(), c.getBounds());
+			}
+		}
+	}
+
+	/**
+	 * Adjusts the preferred sizes of columns or rows with the variable size,
+	 * see {@link FormLayoutManager#calculateVarSizes(int, int[], int[], int[])}.
+	 */
+	protected int[] trackSizes(int varSize, int[] min, int[] pref, int[] max) {
+
+		int[] sizes = new int[pref.length];
+		calculateVarSizes(varSize, pref, (varSize > 0 ? max : min), sizes);
+		for (int i = 0; i < sizes.length; i++) {
+			sizes[i] += pref[i];
+		}
+		return sizes;
+	}
+
+	protected static int within(int size, int min, int max) {
+		return (max < size ? max : min > size ? min : size);
+	}
+
+}
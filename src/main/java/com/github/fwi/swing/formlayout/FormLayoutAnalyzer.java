@@ -0,0 +1,312 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import javax.swing.AbstractButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.plaf.basic.BasicHTML;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Walks a built form (container hierarchy) and reports the layout costs:
+ * nesting depth, container and component counts, heavyweight components, components without form-constraints,
+ * HTML labels without form-constraints, chains of {@link MirrorBox}es and an estimated cost per layout pass.
+ * The findings describe what can be done to lower the costs.
+ * <br>The estimated cost is in relative units, about one unit per size calculation or placement of a component:
+ * a component without form-constraints is measured three times (min/pref/max-size), an HTML label costs more
+ * and a mirror-box repeats the size calculations of the mirrored component.
+ * <p>
+ * Can be used in tests to keep a screen within a layout budget, e.g.
+ * <br><code>FormLayoutAnalyzer.analyze(form).assertWithinBudget(5000, 8);</code>
+ */
+public class FormLayoutAnalyzer {
+
+	private static final Logger log = LoggerFactory.getLogger(FormLayoutAnalyzer.class);
+
+	/** The cost of placing a component or measuring a component with form-constraints. */
+	public static final int COST_PLACE = 1;
+	/** The cost of measuring a component without form-constraints (min/pref/max-size). */
+	public static final int COST_MEASURE = 3;
+	/** The cost of measuring an HTML label (the HTML view is laid out for each size). */
+	public static final int COST_MEASURE_HTML = 30;
+
+	/**
+	 * Analyzes the container-hierarchy below (and including) the root container.
+	 */
+	public static FormLayoutAnalyzer analyze(Container root) {
+		return new FormLayoutAnalyzer(root).analyze();
+	}
+
+	protected final Container root;
+	protected int depthWarning = 8;
+	protected int childrenWarning = 500;
+
+	protected int maxDepth;
+	protected Component deepest;
+	protected int containerCount;
+	protected int componentCount;
+	protected int formContainerCount;
+	protected final List<Component> heavyweights = new ArrayList<>();
+	protected int unconstrainedCount;
+	protected final List<Component> unconstrainedHtml = new ArrayList<>();
+	protected final List<Container> largeContainers = new ArrayList<>();
+	protected int longestMirrorChain;
+	protected MirrorBox longestMirrorChainStart;
+	protected long estimatedCost;
+	protected long maxContainerCost;
+	protected Container mostExpensive;
+	protected final List<String> findings = new ArrayList<>();
+
+	/**
+	 * Use {@link #analyze()} after changing the warning levels, or use {@link #analyze(Container)}.
+	 */
+	public FormLayoutAnalyzer(Container root) {
+		super();
+		this.root = root;
+	}
+
+	/**
+	 * Analyzes the container-hierarchy, can be called once.
+	 * @return this analyzer.
+	 */
+	public FormLayoutAnalyzer analyze() {
+
+		synchronized (root.getTreeLock()) {
+			analyzeTree(root, 1);
+		}
+		addFindings();
+		if (log.isDebugEnabled()) {
+			log.debug("Analyzed {}: depth {}, {} containers, {} components, cost {}", root.getClass().getSimpleName(),
+					maxDepth, containerCount, componentCount, estimatedCost);
+		}
+		return this;
+	}
+
+	/** The deepest nesting of containers, the root container has depth 1. */
+	public int getMaxDepth() { return maxDepth; }
+	/** The amount of containers (the root included). */
+	public int getContainerCount() { return containerCount; }
+	/** The amount of components that are not a container. */
+	public int getComponentCount() { return componentCount; }
+	/** The amount of containers using a {@link FormLayoutManager}. */
+	public int getFormContainerCount() { return formContainerCount; }
+	/** The heavyweight (AWT) components, e.g. a {@link java.awt.Canvas} used as filler. */
+	public List<Component> getHeavyweights() { return Collections.unmodifiableList(heavyweights); }
+	/** The amount of components in a form container without form-constraints. */
+	public int getUnconstrainedCount() { return unconstrainedCount; }
+	/** The HTML labels (and buttons) in a form container without form-constraints. */
+	public List<Component> getUnconstrainedHtml() { return Collections.unmodifiableList(unconstrainedHtml); }
+	/** The amount of mirror-boxes in the longest chain of mirror-boxes mirroring a mirror-box. */
+	public int getLongestMirrorChain() { return longestMirrorChain; }
+	/** The estimated cost of a layout pass over all containers (relative units). */
+	public long getEstimatedCost() { return estimatedCost; }
+	/** The container with the highest estimated cost for its own components. */
+	public Container getMostExpensive() { return mostExpensive; }
+	/** What can be done to lower the layout costs. */
+	public List<String> getFindings() { return Collections.unmodifiableList(findings); }
+
+	protected void analyzeTree(Container c, int depth) {
+
+		containerCount++;
+		if (depth > maxDepth) {
+			maxDepth = depth;
+			deepest = c;
+		}
+		if (c instanceof MirrorBox) {
+			analyzeMirror((MirrorBox) c);
+		}
+		FormLayoutManager layout = (c.getLayout() instanceof FormLayoutManager ? (FormLayoutManager) c.getLayout() : null);
+		if (layout != null) {
+			formContainerCount++;
+		}
+		int count = c.getComponentCount();
+		if (count > childrenWarning) {
+			largeContainers.add(c);
+		}
+		long cost = 0L;
+		for (int i = 0; i < count; i++) {
+			Component child = c.getComponent(i);
+			if (isHeavyweight(child)) {
+				heavyweights.add(child);
+			}
+			cost += COST_PLACE + measureCost(layout, child);
+			if (child instanceof Container && !(child instanceof MirrorBox.MirrorCanvas)
+					&& (child instanceof AbstractBox || ((Container) child).getComponentCount() > 0)) {
+				analyzeTree((Container) child, depth + 1);
+			} else {
+				componentCount++;
+			}
+		}
+		estimatedCost += cost;
+		if (cost > maxContainerCost) {
+			maxContainerCost = cost;
+			mostExpensive = c;
+		}
+	}
+
+	protected long measureCost(FormLayoutManager layout, Component c) {
+
+		if (c instanceof MirrorBox.MirrorCanvas || layout == null) {
+			return COST_MEASURE;
+		}
+		// the layout sizes of a box are cached by the layout manager of the box.
+		if (layout.getConstraints(c) != null || c instanceof AbstractBox) {
+			return COST_PLACE;
+		}
+		unconstrainedCount++;
+		if (isHtml(c)) {
+			unconstrainedHtml.add(c);
+			return COST_MEASURE_HTML;
+		}
+		return COST_MEASURE;
+	}
+
+	protected void analyzeMirror(MirrorBox m) {
+
+		Set<Component> chain = Collections.newSetFromMap(new IdentityHashMap<>());
+		Component target = m;
+		while (target instanceof MirrorBox && chain.add(target)) {
+			target = ((MirrorBox) target).getMirrorTarget();
+		}
+		if (chain.size() > longestMirrorChain) {
+			longestMirrorChain = chain.size();
+			longestMirrorChainStart = m;
+		}
+		// each mirror-box repeats the size calculation of the mirrored component.
+		estimatedCost += (long) chain.size() * COST_MEASURE;
+	}
+
+	/**
+	 * True for AWT components with a native peer (e.g. Canvas or Panel).
+	 */
+	protected boolean isHeavyweight(Component c) {
+
+		if (c.isDisplayable()) {
+			return !c.isLightweight();
+		}
+		if (c instanceof JComponent || c instanceof Filler) {
+			return false;
+		}
+		for (Class<?> cl = c.getClass(); cl != Component.class && cl != Container.class; cl = cl.getSuperclass()) {
+			if (cl.getName().startsWith("java.awt.")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected boolean isHtml(Component c) {
+
+		String text = null;
+		if (c instanceof JLabel) {
+			text = ((JLabel) c).getText();
+		} else if (c instanceof AbstractButton) {
+			text = ((AbstractButton) c).getText();
+		}
+		return BasicHTML.isHTMLString(text);
+	}
+
+	protected void addFindings() {
+
+		if (maxDepth > depthWarning) {
+			findings.add("Nesting depth " + maxDepth + " at " + pathOf(deepest)
+				+ ": each change invalidates all parent containers, use a GridBox or flatten boxes (BaseFormBuilder#setFlattenOnBuild).");
+		}
+		if (!heavyweights.isEmpty()) {
+			findings.add(heavyweights.size() + " heavyweight components (e.g. " + pathOf(heavyweights.get(0))
+				+ "): each has a native peer, use a Filler or a lightweight component.");
+		}
+		if (!unconstrainedHtml.isEmpty()) {
+			findings.add(unconstrainedHtml.size() + " HTML labels without form-constraints (e.g. " + pathOf(unconstrainedHtml.get(0))
+				+ "): the HTML view is laid out for each size, set form-constraints or use AsyncMeasurement.");
+		}
+		if (longestMirrorChain > 1) {
+			findings.add("Chain of " + longestMirrorChain + " mirror-boxes starting at " + pathOf(longestMirrorChainStart)
+				+ ": mirror the final box directly or use a SizeGroup.");
+		}
+		for (Container c : largeContainers) {
+			findings.add(c.getComponentCount() + " components in " + pathOf(c)
+				+ ": consider a RenderedRowsBox or loading rows with a RowLoader.");
+		}
+	}
+
+	/**
+	 * A path of class names and indexes from the root container to the component.
+	 */
+	protected String pathOf(Component c) {
+
+		List<String> parts = new ArrayList<>();
+		while (c != null) {
+			String name = (c.getName() == null ? c.getClass().getSimpleName() : c.getName());
+			Container parent = c.getParent();
+			if (c == root || parent == null) {
+				parts.add(name);
+				break;
+			}
+			parts.add(name + "[" + parent.getComponentZOrder(c) + "]");
+			c = parent;
+		}
+		Collections.reverse(parts);
+		return String.join("/", parts);
+	}
+
+	/**
+	 * True if the estimated cost and the nesting depth are within the given maximums.
+	 */
+	public boolean isWithinBudget(long maxCost, int maxDepth) {
+		return (estimatedCost <= maxCost && this.maxDepth <= maxDepth);
+	}
+
+	/**
+	 * Throws an {@link AssertionError} with this report if the estimated cost or the nesting depth exceed the given maximums.
+	 * @return this analyzer.
+	 */
+	public FormLayoutAnalyzer assertWithinBudget(long maxCost, int maxDepth) {
+
+		if (!isWithinBudget(maxCost, maxDepth)) {
+			throw new AssertionError("Layout budget exceeded (maximum cost " + maxCost
+					+ ", maximum depth " + maxDepth + ")\n" + this);
+		}
+		return this;
+	}
+
+	public int getDepthWarning() { return depthWarning; }
+	/** Nesting deeper than this depth is reported as finding, default 8. */
+	public FormLayoutAnalyzer setDepthWarning(int depthWarning) { this.depthWarning = depthWarning; return this; }
+
+	public int getChildrenWarning() { return childrenWarning; }
+	/** Containers with more components are reported as finding, default 500. */
+	public FormLayoutAnalyzer setChildrenWarning(int childrenWarning) { this.childrenWarning = childrenWarning; return this; }
+
+	@Override
+	public String toString() {
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("Layout analysis of ").append(pathOf(root))
+			.append("\n  depth: ").append(maxDepth)
+			.append("\n  containers: ").append(containerCount).append(" (form containers: ").append(formContainerCount).append(')')
+			.append("\n  components: ").append(componentCount)
+			.append("\n  heavyweight components: ").append(heavyweights.size())
+			.append("\n  components without form-constraints: ").append(unconstrainedCount)
+			.append(" (HTML labels: ").append(unconstrainedHtml.size()).append(')')
+			.append("\n  longest mirror-box chain: ").append(longestMirrorChain)
+			.append("\n  estimated cost per layout pass: ").append(estimatedCost);
+		if (mostExpensive != null) {
+			sb.append(" (most expensive: ").append(pathOf(mostExpensive)).append(' ').append(maxContainerCost).append(')');
+		}
+		for (String finding : findings) {
+			sb.append("\n  - ").append(finding);
+		}
+		return sb.toString();
+	}
+
+}
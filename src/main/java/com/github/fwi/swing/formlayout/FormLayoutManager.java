@@ -4,14 +4,30 @@ import java.awt.Component;
 import java.awt.ComponentOrientation;
 import java.awt.Container;
 import java.awt.Dimension;
+import java.awt.EventQueue;
 import java.awt.Insets;
 import java.awt.LayoutManager2;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
 import javax.swing.SwingConstants;
+import javax.swing.event.ChangeListener;
 
 import static javax.swing.SwingConstants.VERTICAL;
 import static javax.swing.SwingConstants.HORIZONTAL;
@@ -19,6 +35,8 @@ import static javax.swing.SwingConstants.HORIZONTAL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.fwi.swing.formlayout.jfr.FormLayoutEvents;
+
 /**
  * A layout manager that uses {@link FormConstraints} to calculate component location and size.
  * If no form-constraints are set for a component, the min/pref/max-sizes from the component itself are used.
@@ -31,6 +49,24 @@ import org.slf4j.LoggerFactory;
  * Some (size related) data is cached during calculations 
  * which means that one instance of this class used in two containers will result in faulty calculations.
  * <p>
+ * The layout manager listens for changes in the {@link FormConstraints} of its components:
+ * a change re-measures only the components using the changed form-constraints and revalidates the container.
+ * See also {@link #setConstraints(Component, FormConstraints)}.
+ * <p>
+ * After a layout, the component at a position and the position of a component are found in O(log n) 
+ * via {@link #indexAt(int)} and {@link #offsetOf(int)}, see also {@link ExtentTree}.
+ * <br>The layout sizes are kept as running totals of the component sizes. When only known components changed
+ * (see {@link #invalidateComponent(Component)} and {@link #updateComponents(Container, Runnable)}),
+ * the totals are updated for these components only. Other invalidations (e.g. a component is made visible
+ * or added outside {@link #updateComponents(Container, Runnable)}) measure all components again.
+ * <p>
+ * Layouts for sizes the container is likely to get can be calculated in advance on a background thread,
+ * see {@link #precompute(Container, Collection)} and {@link LayoutSnapshot}.
+ * A complete box tree can also be laid out asynchronously, see {@link #layoutAsync(Container)}.
+ * <p>
+ * Layout passes, size calculations and invalidations are recorded as Java Flight Recorder events,
+ * see {@link FormLayoutEvents}.
+ * <p>
  * Alternatives: <a href="http://www.jgoodies.com/freeware/libraries/forms/">JGoodies FormLayout</a>
  * and <a href="http://www.miglayout.com/">MigLayout</a>
  */
@@ -43,6 +79,16 @@ public class FormLayoutManager implements LayoutManager2 {
 	protected final Map<Component, ComponentSizes> sizes = new HashMap<>();
 	protected FormGraphics graphics;
 	protected boolean useMirrorSizes;
+	/** Set when one or more components are a member of a {@link SizeGroup}. */
+	protected boolean hasSizeGroups;
+	/** Set while invalidating for components with changed sizes, the sizes of other components are kept. */
+	protected boolean retainSizes;
+	/** Set while invalidating to lay out again (see {@link #relayout(Container)}), only used for the invalidate event cause. */
+	protected boolean relayoutCause;
+	/** Set when the next invalidation is caused by the components in {@link #changedComponents} only. */
+	protected boolean expectInvalidate;
+	/** Registered with the form-constraints of components (form-constraints keep a weak reference). */
+	protected final ChangeListener constraintsListener = e -> constraintsChanged((FormConstraints) e.getSource());
 
 	/**
 	 * Aligns components vertically, see also {@link FormLayoutManager#FormLayoutManager(int)}.
@@ -87,6 +133,9 @@ public class FormLayoutManager implements LayoutManager2 {
 		}
 	}
 
+	/** Either {@link SwingConstants#HORIZONTAL}) or {@link SwingConstants#VERTICAL}). */
+	public int getDirection() { return direction; }
+
 	public FormGraphics getFormGraphics() { return graphics; }
 	public void setFormGraphics(FormGraphics formGraphics) { if (formGraphics != null) this.graphics = formGraphics; }
 
@@ -143,6 +192,16 @@ public class FormLayoutManager implements LayoutManager2 {
 	public void addLayoutComponent(Component comp, FormConstraints componentConstraints) {
 
 		constraints.put(comp, componentConstraints);
+		structureChanged(comp);
+		if (componentConstraints != null) {
+			componentConstraints.addChangeListener(constraintsListener);
+		}
+		SizeGroup sizeGroup = SizeGroup.getSizeGroup(comp);
+		if (sizeGroup != null) {
+			hasSizeGroups = true;
+			// the member might have been measured without parent.
+			sizeGroup.invalidateMember(comp);
+		}
 		if (log.isDebugEnabled()) {
 			log.debug("{} added {} - {}", logId(), comp.getClass().getSimpleName(), 
 					(componentConstraints== null ? -1.0 : componentConstraints.sizex));
@@ -152,22 +211,218 @@ public class FormLayoutManager implements LayoutManager2 {
 	@Override
 	public void removeLayoutComponent(Component comp) {
 		constraints.remove(comp);
+		sizes.remove(comp);
+		structureChanged(comp);
+		SizeGroup sizeGroup = SizeGroup.getSizeGroup(comp);
+		if (sizeGroup != null) {
+			sizeGroup.invalidateMember(comp);
+		}
 		// invalidate is called later by the parent container.
+		// the listener for the form-constraints is not removed, other components might use the same form-constraints.
+	}
+
+	/**
+	 * Records an added or removed component. Within {@link #updateComponents(Container, Runnable)}
+	 * the invalidation of the container that follows is caused by this change only.
+	 */
+	protected void structureChanged(Component comp) {
+
+		componentChanged(comp);
+		if (retainSizes) {
+			Container parent = comp.getParent();
+			// an invalid container is not invalidated again.
+			expectInvalidate = (parent != null && parent.isValid());
+		}
+	}
+
+	/**
+	 * The form-constraints used for the component, null if the component has no form-constraints.
+	 */
+	public FormConstraints getConstraints(Component comp) {
+		return constraints.get(comp);
+	}
+
+	/**
+	 * Replaces the form-constraints for a component in the container (null to use the sizes of the component itself).
+	 * Only the component is measured again, see {@link #invalidateComponent(Component)}.
+	 */
+	public void setConstraints(Component comp, FormConstraints componentConstraints) {
+
+		synchronized (this) {
+			if (!constraints.containsKey(comp)) {
+				return;
+			}
+			addLayoutComponent(comp, componentConstraints);
+		}
+		invalidateComponent(comp);
+	}
+
+	/**
+	 * Called when values of form-constraints changed, invalidates the components using the form-constraints.
+	 */
+	protected void constraintsChanged(FormConstraints fc) {
+
+		if (!EventQueue.isDispatchThread()) {
+			EventQueue.invokeLater(() -> constraintsChanged(fc));
+			return;
+		}
+		List<Component> changed = new ArrayList<>();
+		synchronized (this) {
+			for (Map.Entry<Component, FormConstraints> entry : constraints.entrySet()) {
+				if (entry.getValue() == fc) {
+					changed.add(entry.getKey());
+				}
+			}
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("{} form-constraints changed for {} components", logId(), changed.size());
+		}
+		for (Component c : changed) {
+			invalidateComponent(c);
+		}
+	}
+
+	/**
+	 * Measures the component again during the next layout while keeping the cached sizes of the other components,
+	 * and revalidates the container (parent of the component).
+	 * The form layout managers of the parent containers (up to the validate root) also keep the cached sizes
+	 * of all components except the container that holds the component.
+	 * Must be called on the event dispatch thread.
+	 */
+	public void invalidateComponent(Component c) {
+
+		Container target = c.getParent();
+		if (target == null || target.getLayout() != this) {
+			return;
+		}
+		List<FormLayoutManager> retaining = retainSizesUpTo(c);
+		try {
+			target.invalidate();
+		} finally {
+			for (FormLayoutManager layout : retaining) {
+				layout.retainSizes = false;
+				layout.expectInvalidate = false;
+			}
+		}
+		scheduleValidate(target);
+	}
+
+	/**
+	 * Removes the cached sizes of the component from the form layout manager of the parent container,
+	 * and the cached sizes of the parent container from the form layout manager of its parent and so on,
+	 * up to and including the validate root (invalidation does not go beyond the validate root).
+	 * The form layout managers retain the sizes of all other components during the next invalidation.
+	 * @return the form layout managers that retain sizes, reset {@link #retainSizes} and {@link #expectInvalidate} after invalidation.
+	 */
+	protected static List<FormLayoutManager> retainSizesUpTo(Component c) {
+
+		List<FormLayoutManager> retaining = new ArrayList<>();
+		Component child = c;
+		Container parent = c.getParent();
+		while (parent != null) {
+			if (parent.getLayout() instanceof FormLayoutManager) {
+				FormLayoutManager layout = (FormLayoutManager) parent.getLayout();
+				synchronized (layout) {
+					layout.sizes.remove(child);
+					layout.componentChanged(child);
+					SizeGroup sizeGroup = SizeGroup.getSizeGroup(child);
+					if (sizeGroup != null) {
+						sizeGroup.invalidateMember(child);
+					}
+					layout.retainSizes = true;
+					layout.expectInvalidate = true;
+				}
+				retaining.add(layout);
+			}
+			if (parent.isValidateRoot()) {
+				break;
+			}
+			child = parent;
+			parent = parent.getParent();
+		}
+		return retaining;
+	}
+
+	/**
+	 * Lays out the container again (e.g. for a new container size) during the next validation,
+	 * using the cached sizes of all components. Must be called on the event dispatch thread.
+	 */
+	public void relayout(Container target) {
+
+		retainSizes = true;
+		relayoutCause = true;
+		keepPrecomputed = true;
+		expectInvalidate = true;
+		try {
+			target.invalidate();
+		} finally {
+			retainSizes = false;
+			relayoutCause = false;
+			keepPrecomputed = false;
+			expectInvalidate = false;
+		}
+		scheduleValidate(target);
+	}
+
+	/**
+	 * Runs structural changes to the container (adding, removing and moving components)
+	 * while keeping the cached sizes of the components that stay in the container:
+	 * only added components are measured during the next layout. Revalidates the container afterwards.
+	 * The layout sizes are updated for the added and removed components only,
+	 * other changes (e.g. showing or hiding a component) update the layout sizes using all (cached) component sizes.
+	 * The parent containers keep their cached sizes as with {@link #invalidateComponent(Component)}.
+	 * Must be called on the event dispatch thread.
+	 */
+	public void updateComponents(Container target, Runnable changes) {
+
+		List<FormLayoutManager> retaining = retainSizesUpTo(target);
+		retainSizes = true;
+		relayoutCause = true;
+		expectInvalidate = false;
+		try {
+			changes.run();
+		} finally {
+			retainSizes = false;
+			relayoutCause = false;
+			expectInvalidate = false;
+			for (FormLayoutManager layout : retaining) {
+				layout.retainSizes = false;
+				layout.expectInvalidate = false;
+			}
+		}
+		synchronized (this) {
+			minLayoutSize = prefLayoutSize = maxLayoutSize = null;
+			extentsValid = false;
+		}
+		scheduleValidate(target);
+	}
+
+	protected void scheduleValidate(Container target) {
+
+		if (target instanceof JComponent) {
+			// the second part of JComponent.revalidate(), the first part (invalidate) would clear all sizes.
+			RepaintManager.currentManager(target).addInvalidComponent((JComponent) target);
+		}
 	}
 
 	@Override
 	public void layoutContainer(Container target) {
 
+		Object event = FormLayoutEvents.beginLayoutPass();
 		synchronized(target.getTreeLock()) {
 			layoutContainerSynced(target);
 		}
+		if (event != null) {
+			FormLayoutEvents.commitLayoutPass(event, target, direction, (direction == HORIZONTAL ? 
+					target.getWidth() - prefLayoutSize.width : target.getHeight() - prefLayoutSize.height));
+		}
 	}
 
 	public ComponentSizes getSizes(Component c) {
 
 		ComponentSizes cs = sizes.get(c);
 		if (cs == null) {
-			cs = new ComponentSizes(c, constraints.get(c), graphics);
+			cs = new ComponentSizes(c, constraints.get(c), graphics, SizeGroup.getSizeGroup(c));
 			sizes.put(c, cs);
 		}
 		return cs;
@@ -180,13 +435,31 @@ public class FormLayoutManager implements LayoutManager2 {
 	protected Dimension prefLayoutSize;
 	protected Dimension maxLayoutSize;
 
+	/*
+	 * Extents and sizes of the components from the last layout, 
+	 * used to find components and to skip unchanged components in the next layout.
+	 * Extents are not valid after the layout is invalidated.
+	 */
+	protected ExtentTree extentTree;
+	protected boolean extentsValid;
+	protected int extentStart;
+	protected boolean extentLtr;
+	protected Component[] laidOutComponents;
+	protected int[] laidOutCrossSizes;
+	protected int laidOutCrossStart;
+	protected int laidOutAvailableSize;
+	protected boolean laidOutLtr;
+
 	/* *** The heart of the layout manager, calculating sizes for components adjusted to fit available space. *** */
 
 	protected void layoutContainerSynced(Container target) {
 
-		if (minLayoutSize == null || prefLayoutSize == null || maxLayoutSize == null) {
-			calculateLayoutSizesSynced(target);
+		LayoutSnapshot.Result precomputedResult = getPrecomputed(target);
+		if (precomputedResult != null) {
+			applyPrecomputed(target, precomputedResult);
+			return;
 		}
+		ensureLayoutSizesSynced(target);
 		// A negative size-change means shrinking is required.
 		int varSize = (direction == HORIZONTAL ? 
 				target.getWidth() - prefLayoutSize.width :
@@ -320,6 +593,71 @@ public class FormLayoutManager implements LayoutManager2 {
 		} // while adjustable components
 	} // calculateVarSizes
 
+	/**
+	 * Array-based version of {@link #calculateVarSizes(Container, int, List, Map)} using the same distribution:
+	 * the size-change is divided in equal steps over all sizes that can change 
+	 * until the available size is used or no size can change anymore.
+	 * @param varSize the size to distribute, a negative value means shrinking.
+	 * @param prefSizes the preferred sizes.
+	 * @param limitSizes the maximum sizes when growing, the minimum sizes when shrinking. 
+	 * @param varSizes receives the size-change per index, must contain zeros when this method is called.
+	 */
+	protected static void calculateVarSizes(final int varSize, int[] prefSizes, int[] limitSizes, int[] varSizes) {
+
+		if (varSize == 0) {
+			return;
+		}
+		int[] adjustable = new int[prefSizes.length];
+		int adjustableCount = 0;
+		for (int i = 0; i < prefSizes.length; i++) {
+			if (varSize > 0 ? limitSizes[i] > prefSizes[i] : prefSizes[i] > limitSizes[i]) {
+				adjustable[adjustableCount++] = i;
+			}
+		}
+		if (adjustableCount < 1) {
+			return;
+		}
+		int sizeChangePerComponent = varSize / adjustableCount;
+		if (sizeChangePerComponent == 0) {
+			sizeChangePerComponent = (varSize > 0 ? 1 : -1);
+		}
+		int available = varSize;
+		while (adjustableCount > 0) {
+			if (available == 0 || (available < 0 && varSize > 0) || (available > 0 && varSize < 0)) {
+				break;
+			}
+			int stillAdjustable = 0;
+			for (int a = 0; a < adjustableCount; a++) {
+				int i = adjustable[a];
+				int prevChange = varSizes[i];
+				int size;
+				boolean limitReached;
+				if (varSize > 0) { // growing
+					size = prefSizes[i] + (available > sizeChangePerComponent ? sizeChangePerComponent : available) + prevChange;
+					limitReached = (size >= limitSizes[i]);
+				} else { // shrinking, variable "available" is a negative number.
+					size = prefSizes[i] + (available < sizeChangePerComponent ? sizeChangePerComponent : available) + prevChange;
+					limitReached = (size <= limitSizes[i]);
+				}
+				if (limitReached) {
+					size = limitSizes[i];
+				} else {
+					adjustable[stillAdjustable++] = i;
+				}
+				int adjusted = size - prefSizes[i];
+				varSizes[i] = adjusted;
+				available -= (adjusted - prevChange);
+			}
+			adjustableCount = stillAdjustable;
+		}
+	}
+
+	/**
+	 * Sets the bounds of the visible components.
+	 * <br>Components at the start that have the same size and position as in the previous layout are not touched:
+	 * only the components from the first changed component onwards get new bounds 
+	 * (e.g. when a row near the bottom of a long page changes height, or rows are inserted, removed or reordered).
+	 */
 	protected void layoutComponents(Container target, Map<Component, Integer> varSizes) {
 
 		boolean ltr = (target.getComponentOrientation() != ComponentOrientation.RIGHT_TO_LEFT);
@@ -329,40 +667,321 @@ public class FormLayoutManager implements LayoutManager2 {
 		int availableSize = (direction == HORIZONTAL ?
 				target.getHeight() - insets.top - insets.bottom :
 					target.getWidth() - insets.left - insets.right);
-		for (Component c : target.getComponents()) {
-			if (!c.isVisible()) {
-				continue;
-			}
-			ComponentSizes cs = getSizes(c);
-			int sizex = (direction == HORIZONTAL ? cs.prefSize().width : availableSize);
-			int sizey = (direction == HORIZONTAL ? availableSize : cs.prefSize().height);
-			if (varSizes.containsKey(c)) {
+		int start = (direction == HORIZONTAL ? x : y);
+		int crossStart = (direction == HORIZONTAL ? y : x);
+		boolean extentsLtr = (direction == VERTICAL || ltr);
+		Component[] components = target.getComponents();
+		boolean unchanged = (laidOutComponents != null && start == extentStart && extentsLtr == extentLtr && ltr == laidOutLtr
+				&& crossStart == laidOutCrossStart && availableSize == laidOutAvailableSize);
+		boolean updateTree = (unchanged && laidOutComponents.length == components.length);
+		int[] extents = (updateTree ? null : new int[components.length]);
+		int[] crossSizes = new int[components.length];
+		int kept = 0;
+		for (int i = 0; i < components.length; i++) {
+			Component c = components[i];
+			int extent = 0;
+			crossSizes[i] = -1;
+			if (c.isVisible()) {
+				ComponentSizes cs = getSizes(c);
+				int sizex = (direction == HORIZONTAL ? cs.prefSize().width : availableSize);
+				int sizey = (direction == HORIZONTAL ? availableSize : cs.prefSize().height);
+				if (varSizes.containsKey(c)) {
+					if (direction == HORIZONTAL) {
+						sizex += varSizes.get(c);
+					} else {
+						sizey += varSizes.get(c);
+					}
+				}
+				if (direction == HORIZONTAL) {
+					if (cs.maxSize().height < sizey) {
+						sizey = cs.maxSize().height;
+					} else if (cs.minSize().height > sizey) {
+						sizey = cs.minSize().height;
+					}
+					extent = sizex + graphics.hgap;
+					crossSizes[i] = sizey;
+				} else {
+					if (cs.maxSize().width < sizex) {
+						sizex = cs.maxSize().width;
+					} else if (cs.minSize().width > sizex) {
+						sizex = cs.minSize().width;
+					}
+					extent = sizey + graphics.vgap;
+					crossSizes[i] = sizex;
+				}
+				unchanged = (unchanged && i < laidOutComponents.length && laidOutComponents[i] == c
+						&& laidOutCrossSizes[i] == crossSizes[i] && extentTree.get(i) == extent);
+				if (unchanged) {
+					kept++;
+				} else {
+					c.setBounds(ltr ? x : x - sizex, y, sizex, sizey);
+					if (log.isTraceEnabled()) {
+						log.trace("{} {} bounds {}", logId(), c.getClass().getSimpleName(), c.getBounds());
+					}
+				}
 				if (direction == HORIZONTAL) {
-					sizex += varSizes.get(c);
+					x = (ltr ? x + sizex + graphics.hgap : x - sizex - graphics.hgap);
 				} else {
-					sizey += varSizes.get(c);
+					y += sizey + graphics.vgap;
 				}
+			} else {
+				unchanged = (unchanged && i < laidOutComponents.length && laidOutComponents[i] == c
+						&& laidOutCrossSizes[i] == -1);
 			}
-			if (direction == HORIZONTAL) {
-				if (cs.maxSize().height < sizey) {
-					sizey = cs.maxSize().height;
-				} else if (cs.minSize().height > sizey) {
-					sizey = cs.minSize().height;
+			if (updateTree) {
+				if (extentTree.get(i) != extent) {
+					extentTree.set(i, extent);
 				}
-				c.setBounds(ltr ? x : x - sizex, y, sizex, sizey);
-				x = (ltr ? x + sizex + graphics.hgap : x - sizex - graphics.hgap);
 			} else {
-				if (cs.maxSize().width < sizex) {
-					sizex = cs.maxSize().width;
-				} else if (cs.minSize().width > sizex) {
-					sizex = cs.minSize().width;
+				extents[i] = extent;
+			}
+		}
+		if (!updateTree) {
+			extentTree = new ExtentTree(extents);
+		}
+		extentsValid = true;
+		extentLtr = extentsLtr;
+		extentStart = start;
+		laidOutCrossStart = crossStart;
+		laidOutAvailableSize = availableSize;
+		laidOutLtr = ltr;
+		laidOutComponents = components;
+		laidOutCrossSizes = crossSizes;
+		if (log.isTraceEnabled()) {
+			log.trace("{} kept bounds of {} components", logId(), kept);
+		}
+	}
+
+	/**
+	 * The index of the component at the position from the last layout.
+	 * @param position the distance in the layout direction from the leading edge within the insets of the container
+	 * (the left side for a left-to-right line, the right side for a right-to-left line, the top for a page).
+	 * The gap after a component belongs to the component.
+	 * @return -1 if the position is outside the layed out components or if the layout is not valid.
+	 */
+	public synchronized int indexAt(int position) {
+		return (extentsValid ? extentTree.indexAt(position) : -1);
+	}
+
+	/**
+	 * The index of the component at the location in the container from the last layout,
+	 * see {@link #indexAt(int)}. Only the position in the layout direction is used.
+	 */
+	public synchronized int indexAt(int x, int y) {
+
+		if (!extentsValid) {
+			return -1;
+		}
+		int position = (direction == VERTICAL ? y - extentStart : extentLtr ? x - extentStart : extentStart - 1 - x);
+		return extentTree.indexAt(position);
+	}
+
+	/**
+	 * The position of the leading edge of the component at the index from the last layout, 
+	 * see {@link #indexAt(int)}.
+	 * @return -1 if the layout is not valid.
+	 */
+	public synchronized int offsetOf(int index) {
+		return (extentsValid ? extentTree.offsetOf(index) : -1);
+	}
+
+	/**
+	 * The area of the component at the index (in the container) from the last layout, found in O(log n):
+	 * the size in the layout direction (without the gap) and the available size in the other direction.
+	 * The area of a hidden component is empty.
+	 * @return null if the layout is not valid or the index is out of range.
+	 */
+	public synchronized Rectangle areaOf(int index) {
+
+		if (!extentsValid || index < 0 || index >= extentTree.size()) {
+			return null;
+		}
+		int offset = extentTree.offsetOf(index);
+		int size = Math.max(0, extentTree.get(index) - (direction == HORIZONTAL ? graphics.hgap : graphics.vgap));
+		if (direction == VERTICAL) {
+			int x = (laidOutLtr ? laidOutCrossStart : laidOutCrossStart - laidOutAvailableSize);
+			return new Rectangle(x, extentStart + offset, laidOutAvailableSize, size);
+		}
+		return new Rectangle(extentLtr ? extentStart + offset : extentStart - offset - size, laidOutCrossStart, size, laidOutAvailableSize);
+	}
+
+	/* *** Layouts calculated in advance from a snapshot. *** */
+
+	/**
+	 * Incremented when the layout is invalidated for other reasons than a new size of a box,
+	 * a {@link LayoutSnapshot} taken before is then stale.
+	 */
+	protected volatile int generation;
+	/** Results from {@link LayoutSnapshot}s per container size (width in the high bits, height in the low bits). */
+	protected final Map<Long, LayoutSnapshot.Result> precomputed = new LinkedHashMap<Long, LayoutSnapshot.Result>() {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, LayoutSnapshot.Result> eldest) {
+			return size() > MAX_PRECOMPUTED;
+		}
+	};
+	/** Set while invalidating to lay out again, the layouts calculated in advance remain valid. */
+	protected boolean keepPrecomputed;
+	/** The maximum amount of container sizes for which a layout calculated in advance is kept. */
+	public static final int MAX_PRECOMPUTED = 8;
+
+	private static class PrecomputeExecutorHolder {
+		private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "formlayout-precompute");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+	}
+
+	protected static long sizeKey(int width, int height) {
+		return ((long) width << 32) | (height & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Calculates the layouts of the container (and the boxes within the container) for the given container sizes
+	 * on a low priority background thread. When the container is laid out with one of these sizes, 
+	 * the calculated bounds are applied without measuring the components,
+	 * as long as the layout was not invalidated (other than for a new size) in the mean time.
+	 * <br>The snapshot of the sizes is taken on the calling thread, which must be the event dispatch thread.
+	 * Only the last {@link #MAX_PRECOMPUTED} sizes are kept.
+	 * @return a future that is done when all layouts are calculated.
+	 */
+	public Future<?> precompute(Container target, Collection<Dimension> targetSizes) {
+
+		LayoutSnapshot snapshot = LayoutSnapshot.take(target);
+		if (snapshot == null || targetSizes.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		List<Dimension> copies = new ArrayList<>();
+		for (Dimension d : targetSizes) {
+			copies.add(new Dimension(d));
+		}
+		return PrecomputeExecutorHolder.executor.submit(() -> {
+			for (Dimension d : copies) {
+				if (snapshot.isStale()) {
+					break;
 				}
-				c.setBounds(ltr ? x : x - sizex, y, sizex, sizey);
-				y += sizey + graphics.vgap;
+				snapshot.compute(d.width, d.height).offer();
 			}
-			if (log.isTraceEnabled()) {
-				log.trace("{} {} bounds {}", logId(), c.getClass().getSimpleName(), c.getBounds());
+			if (log.isDebugEnabled()) {
+				log.debug("{} precomputed layouts for {} sizes{}", logId(), copies.size(), (snapshot.isStale() ? " (stale)" : ""));
 			}
+		});
+	}
+
+	/**
+	 * Lays out the container and all boxes within the container asynchronously: 
+	 * a snapshot of the sizes is taken on the calling thread (the event dispatch thread),
+	 * the bounds for the whole tree are calculated on the common fork-join pool (see {@link LayoutSnapshot#computeParallel(int, int)})
+	 * and applied in one task on the event dispatch thread.
+	 * The result is discarded when the snapshot became stale or the size of the container changed in the mean time.
+	 * @return completes on the event dispatch thread with true when the bounds were applied.
+	 */
+	public CompletableFuture<Boolean> layoutAsync(Container target) {
+
+		LayoutSnapshot snapshot = LayoutSnapshot.take(target);
+		if (snapshot == null) {
+			return CompletableFuture.completedFuture(false);
+		}
+		int width = target.getWidth();
+		int height = target.getHeight();
+		CompletableFuture<Boolean> applied = new CompletableFuture<>();
+		CompletableFuture.supplyAsync(() -> snapshot.computeParallel(width, height), ForkJoinPool.commonPool())
+			.whenComplete((result, error) -> EventQueue.invokeLater(() -> {
+				if (error == null) {
+					applied.complete(applyAsync(target, result));
+				} else {
+					applied.completeExceptionally(error);
+				}
+			}));
+		return applied;
+	}
+
+	/**
+	 * Hands the results to the layout managers and validates the container, 
+	 * the layout managers then apply the calculated bounds. Runs on the event dispatch thread.
+	 * @return false if the result is stale or the container has a different size.
+	 */
+	protected boolean applyAsync(Container target, LayoutSnapshot.Result result) {
+
+		if (result.isStale() || target.getWidth() != result.width || target.getHeight() != result.height) {
+			if (log.isDebugEnabled()) {
+				log.debug("{} discarded stale asynchronous layout", logId());
+			}
+			return false;
+		}
+		result.offer();
+		relayout(target);
+		target.validate();
+		return true;
+	}
+
+	/**
+	 * True if a layout calculated in advance is available for the current container size.
+	 */
+	public boolean hasPrecomputed(Container target) {
+		return (getPrecomputed(target) != null);
+	}
+
+	/**
+	 * Keeps the result for the container size if the snapshot of the result is not stale.
+	 */
+	protected synchronized void offerPrecomputed(LayoutSnapshot.Result result) {
+
+		if (result.snapshot.generation == generation) {
+			precomputed.put(sizeKey(result.width, result.height), result);
+		}
+	}
+
+	/**
+	 * The result calculated in advance for the current container size, or null.
+	 */
+	protected synchronized LayoutSnapshot.Result getPrecomputed(Container target) {
+
+		if (precomputed.isEmpty()) {
+			return null;
+		}
+		LayoutSnapshot.Result result = precomputed.get(sizeKey(target.getWidth(), target.getHeight()));
+		if (result == null || result.snapshot.generation != generation 
+				|| result.snapshot.components.length != target.getComponentCount()) {
+			return null;
+		}
+		return result;
+	}
+
+	/**
+	 * Sets the bounds of the components from the result, see {@link #precompute(Container, Collection)}.
+	 */
+	protected void applyPrecomputed(Container target, LayoutSnapshot.Result result) {
+
+		LayoutSnapshot snapshot = result.snapshot;
+		Component[] components = snapshot.components;
+		int[] b = result.bounds;
+		for (int i = 0; i < components.length; i++) {
+			if (snapshot.visible[i]) {
+				components[i].setBounds(b[i * 4], b[i * 4 + 1], b[i * 4 + 2], b[i * 4 + 3]);
+			}
+		}
+		synchronized (this) {
+			if (prefLayoutSize == null) {
+				prefLayoutSize = new Dimension(snapshot.prefLayoutWidth, snapshot.prefLayoutHeight);
+			}
+			extentTree = new ExtentTree(result.extents.clone());
+			extentsValid = true;
+			extentLtr = (direction == VERTICAL || snapshot.ltr);
+			extentStart = (direction == VERTICAL ? snapshot.insets.top 
+					: snapshot.ltr ? snapshot.insets.left : result.width - snapshot.insets.left);
+			laidOutLtr = snapshot.ltr;
+			laidOutCrossStart = (direction == HORIZONTAL ? snapshot.insets.top 
+					: snapshot.ltr ? snapshot.insets.left : result.width - snapshot.insets.left);
+			laidOutAvailableSize = (direction == HORIZONTAL ? result.height - snapshot.insets.top - snapshot.insets.bottom 
+					: result.width - snapshot.insets.left - snapshot.insets.right);
+			// the next normal layout sets all bounds.
+			laidOutComponents = null;
+		}
+		if (log.isTraceEnabled()) {
+			log.trace("{} applied precomputed layout for {} x {}", logId(), result.width, result.height);
 		}
 	}
 
@@ -370,9 +989,24 @@ public class FormLayoutManager implements LayoutManager2 {
 
 	protected void calculateLayoutSizes(Container target) {
 
+		Object event = FormLayoutEvents.beginSizeCalculation();
 		synchronized(target.getTreeLock()) {
 			calculateLayoutSizesSynced(target);
 		}
+		FormLayoutEvents.commitSizeCalculation(event, target, direction, minLayoutSize, prefLayoutSize, maxLayoutSize);
+	}
+
+	/**
+	 * Calculates the layout sizes if these are not available.
+	 * Must be called with the tree-lock held.
+	 */
+	protected void ensureLayoutSizesSynced(Container target) {
+
+		if (minLayoutSize == null || prefLayoutSize == null || maxLayoutSize == null) {
+			Object event = FormLayoutEvents.beginSizeCalculation();
+			calculateLayoutSizesSynced(target);
+			FormLayoutEvents.commitSizeCalculation(event, target, direction, minLayoutSize, prefLayoutSize, maxLayoutSize);
+		}
 	}
 
 	protected void calculateLayoutSizesSynced(Container target) {
@@ -386,52 +1020,24 @@ public class FormLayoutManager implements LayoutManager2 {
 			maxLayoutSize = target.getComponent(0).getMaximumSize();
 			return;
 		}
-		minLayoutSize = new Dimension(0, 0);
-		prefLayoutSize = new Dimension(0, 0);
-		maxLayoutSize = new Dimension(0, 0);
-		int visibleComponents = 0;
-		for (Component c : target.getComponents()) {
-			if (!c.isVisible()) {
-				continue;
-			}
-			visibleComponents++;
-			ComponentSizes cs = getSizes(c);
-			if (direction == HORIZONTAL) {
-				minLayoutSize.width += cs.minSize().width + graphics.hgap;
-				prefLayoutSize.width += cs.prefSize().width + graphics.hgap;
-				maxLayoutSize.width += cs.maxSize().width + graphics.hgap;
-				minLayoutSize.height = Math.max(minLayoutSize.height, cs.minSize().height);
-				prefLayoutSize.height = Math.max(prefLayoutSize.height, cs.prefSize().height);
-				maxLayoutSize.height = Math.max(maxLayoutSize.height, cs.maxSize().height);
-			} else {
-				minLayoutSize.height += cs.minSize().height + graphics.vgap;
-				prefLayoutSize.height += cs.prefSize().height + graphics.vgap;
-				maxLayoutSize.height += cs.maxSize().height + graphics.vgap;
-				minLayoutSize.width = Math.max(minLayoutSize.width, cs.minSize().width);
-				prefLayoutSize.width = Math.max(prefLayoutSize.width, cs.prefSize().width);
-				maxLayoutSize.width = Math.max(maxLayoutSize.width, cs.maxSize().width);
-			}
-		} // for components
+		if (!totalsValid) {
+			calculateTotals(target);
+		} else if (!changedComponents.isEmpty()) {
+			updateTotals(target);
+		}
+		// one gap less than visible components to prevent doubling up on gaps
+		int gaps = Math.max(0, countedSizes.size() - 1) * (direction == HORIZONTAL ? graphics.hgap : graphics.vgap);
 		Insets insets = target.getInsets();
 		int insetsWidth = insets.left + insets.right;
 		int insetsHeight = insets.top + insets.bottom;
-		minLayoutSize.width += insetsWidth;
-		prefLayoutSize.width += insetsWidth;
-		maxLayoutSize.width += insetsWidth;
-		minLayoutSize.height += insetsHeight;
-		prefLayoutSize.height += insetsHeight;
-		maxLayoutSize.height += insetsHeight;
-		// remove last gap to prevent doubling up on gaps
-		if (visibleComponents > 0) {
-			if (direction == HORIZONTAL) {
-				minLayoutSize.width -= graphics.hgap;
-				prefLayoutSize.width -= graphics.hgap;
-				maxLayoutSize.width -= graphics.hgap;
-			} else {
-				minLayoutSize.height -= graphics.vgap;
-				prefLayoutSize.height -= graphics.vgap;
-				maxLayoutSize.height -= graphics.vgap;
-			}
+		if (direction == HORIZONTAL) {
+			minLayoutSize = new Dimension(sizeTotals[0] + gaps + insetsWidth, crossMax[0] + insetsHeight);
+			prefLayoutSize = new Dimension(sizeTotals[1] + gaps + insetsWidth, crossMax[1] + insetsHeight);
+			maxLayoutSize = new Dimension(sizeTotals[2] + gaps + insetsWidth, crossMax[2] + insetsHeight);
+		} else {
+			minLayoutSize = new Dimension(crossMax[0] + insetsWidth, sizeTotals[0] + gaps + insetsHeight);
+			prefLayoutSize = new Dimension(crossMax[1] + insetsWidth, sizeTotals[1] + gaps + insetsHeight);
+			maxLayoutSize = new Dimension(crossMax[2] + insetsWidth, sizeTotals[2] + gaps + insetsHeight);
 		}
 		if (target instanceof AbstractBox) {
 			maxLayoutSize = ((AbstractBox)target).withinMaxGrow(maxLayoutSize); 
@@ -442,6 +1048,122 @@ public class FormLayoutManager implements LayoutManager2 {
 		}
 	}
 
+	/*
+	 * Running totals of the sizes of the visible components (without gaps and insets).
+	 */
+	/** Per visible component the sizes in the totals: min, pref and max-size in the layout direction, then in the other direction. */
+	protected final Map<Component, int[]> countedSizes = new HashMap<>();
+	/** Components added, removed or measured again since the totals were calculated. */
+	protected final Set<Component> changedComponents = new LinkedHashSet<>();
+	/** The sum of the min, pref and max-sizes in the layout direction. */
+	protected final int[] sizeTotals = new int[3];
+	/** The largest min, pref and max-size in the other direction, and the amount of components with that size. */
+	protected final int[] crossMax = new int[3], crossMaxCount = new int[3];
+	/** False when all components must be counted again. */
+	protected boolean totalsValid;
+
+	/**
+	 * Updates the totals for the component during the next size calculation, if the totals are valid.
+	 */
+	protected void componentChanged(Component c) {
+
+		if (totalsValid) {
+			changedComponents.add(c);
+		}
+	}
+
+	/**
+	 * Counts the sizes of all visible components.
+	 */
+	protected void calculateTotals(Container target) {
+
+		countedSizes.clear();
+		changedComponents.clear();
+		Arrays.fill(sizeTotals, 0);
+		Arrays.fill(crossMax, 0);
+		Arrays.fill(crossMaxCount, 0);
+		for (Component c : target.getComponents()) {
+			if (c.isVisible()) {
+				count(c);
+			}
+		}
+		totalsValid = true;
+	}
+
+	/**
+	 * Updates the totals for the changed components only.
+	 * The components are only counted again when a component with the largest size in the other direction
+	 * is removed or changed, and no other component has that size.
+	 */
+	protected void updateTotals(Container target) {
+
+		boolean maxRemoved = false;
+		for (Component c : changedComponents) {
+			maxRemoved |= uncount(c);
+			if (c.getParent() == target && c.isVisible()) {
+				count(c);
+			}
+		}
+		if (log.isTraceEnabled()) {
+			log.trace("{} updated sizes for {} changed components", logId(), changedComponents.size());
+		}
+		changedComponents.clear();
+		if (maxRemoved) {
+			Arrays.fill(crossMax, 0);
+			Arrays.fill(crossMaxCount, 0);
+			for (int[] counted : countedSizes.values()) {
+				countCrossMax(counted);
+			}
+		}
+	}
+
+	protected void count(Component c) {
+
+		ComponentSizes cs = getSizes(c);
+		int[] counted = (direction == HORIZONTAL ? 
+				new int[] { cs.minSize().width, cs.prefSize().width, cs.maxSize().width,
+						cs.minSize().height, cs.prefSize().height, cs.maxSize().height } :
+				new int[] { cs.minSize().height, cs.prefSize().height, cs.maxSize().height,
+						cs.minSize().width, cs.prefSize().width, cs.maxSize().width });
+		countedSizes.put(c, counted);
+		for (int i = 0; i < 3; i++) {
+			sizeTotals[i] += counted[i];
+		}
+		countCrossMax(counted);
+	}
+
+	protected void countCrossMax(int[] counted) {
+
+		for (int i = 0; i < 3; i++) {
+			if (counted[i + 3] > crossMax[i]) {
+				crossMax[i] = counted[i + 3];
+				crossMaxCount[i] = 1;
+			} else if (counted[i + 3] == crossMax[i]) {
+				crossMaxCount[i]++;
+			}
+		}
+	}
+
+	/**
+	 * Removes the sizes of the component from the totals.
+	 * @return true if the largest size in the other direction must be found again.
+	 */
+	protected boolean uncount(Component c) {
+
+		int[] counted = countedSizes.remove(c);
+		if (counted == null) {
+			return false;
+		}
+		boolean maxRemoved = false;
+		for (int i = 0; i < 3; i++) {
+			sizeTotals[i] -= counted[i];
+			if (counted[i + 3] == crossMax[i] && --crossMaxCount[i] == 0) {
+				maxRemoved = true;
+			}
+		}
+		return maxRemoved;
+	}
+
 	public static String toString(Dimension d) {
 		return "[" + d.width + ", " + d.height + "]";
 	}
@@ -490,13 +1212,50 @@ public class FormLayoutManager implements LayoutManager2 {
 	@Override
 	public synchronized void invalidateLayout(Container target) {
 
+		if (FormLayoutEvents.AVAILABLE) {
+			FormLayoutEvents.invalidate(target, direction, (relayoutCause ? FormLayoutEvents.CAUSE_RELAYOUT
+				: retainSizes ? FormLayoutEvents.CAUSE_CONSTRAINTS :
+				minLayoutSize == null && sizes.isEmpty() ? FormLayoutEvents.CAUSE_REPEATED : FormLayoutEvents.CAUSE_CONTAINER));
+		}
 		minLayoutSize = prefLayoutSize = maxLayoutSize = null;
+		extentsValid = false;
+		// sizes of components in a size-group depend on other containers.
+		if (!retainSizes || !expectInvalidate || hasSizeGroups) {
+			totalsValid = false;
+			changedComponents.clear();
+		}
+		expectInvalidate = false;
+		if (!keepPrecomputed && !(target instanceof AbstractBox && ((AbstractBox) target).isResizing())) {
+			// only a new size keeps the layouts calculated in advance.
+			generation++;
+			precomputed.clear();
+		}
+		if (retainSizes) {
+			if (log.isTraceEnabled()) {
+				log.trace("{} invalidated layout sizes", logId());
+			}
+			return;
+		}
 		sizes.clear();
+		if (hasSizeGroups) {
+			invalidateSizeGroups(target);
+		}
 		if (log.isTraceEnabled()) {
 			log.trace("{} invalidated layout", logId());
 		}
 	}
 
+	protected void invalidateSizeGroups(Container target) {
+
+		for (int i = 0; i < target.getComponentCount(); i++) {
+			Component c = target.getComponent(i);
+			SizeGroup sizeGroup = SizeGroup.getSizeGroup(c);
+			if (sizeGroup != null) {
+				sizeGroup.invalidateMember(c);
+			}
+		}
+	}
+
 	@Override
 	public float getLayoutAlignmentX(Container target) {
 		return 0;
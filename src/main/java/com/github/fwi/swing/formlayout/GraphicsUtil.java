@@ -6,7 +6,6 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsDevice;
-import java.awt.GraphicsEnvironment;
 import java.awt.Insets;
 import java.awt.Point;
 import java.awt.Rectangle;
@@ -65,7 +64,8 @@ public class GraphicsUtil {
 	 * <br>Revalidate calls {@link Container#isValidateRoot()} which 
 	 * normally results in calling {@link Component#validate()} for the top Windows/Frame/Dialog container.
 	 * With smart revalidate the "validate root" can be a scroll-pane for example
-	 * (see also {@link JComponent#isValidateRoot()}.
+	 * (see also {@link JComponent#isValidateRoot()} and {@link AbstractBox#isValidateRoot()}).
+	 * <br>The property is read once by AWT: call this method before any component is created.
 	 */
 	public static void setSmartRevalidate(boolean beSmart) {
 		System.setProperty("java.awt.smartInvalidate", Boolean.toString(beSmart));
@@ -202,30 +202,13 @@ public class GraphicsUtil {
 	 * <br>The total bounds can be used to determine if a window is completely invisible
 	 * (if a window position is outside the total bounds, it is "virtual" and not visible to the user).
 	 * See also {@link #fitToBounds(Window, Rectangle)}.
+	 * <br>The bounds are cached by the {@link ScreenTopology} which picks up screen changes by itself,
+	 * changed screen insets (e.g. a moved taskbar) within {@link ScreenTopology#MaxAgeMillis}.
 	 */
 	public static Rectangle[] getScreenSizes() {
 		
-		Rectangle totalBounds = new Rectangle();
-		Rectangle primaryBounds = new Rectangle();
-		GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-		GraphicsDevice defaultScreen = ge.getDefaultScreenDevice(); 
-		GraphicsDevice[] screens = ge.getScreenDevices();
-		for (int j = 0; j < screens.length; j++) {
-			GraphicsDevice screen = screens[j];
-			boolean primary = (screen == defaultScreen);
-			GraphicsConfiguration gc = screen.getDefaultConfiguration();
-			Rectangle bounds = gc.getBounds();
-			Insets screenInsets = Toolkit.getDefaultToolkit().getScreenInsets(gc);
-			bounds.x += screenInsets.left;
-		    bounds.y += screenInsets.top;
-		    bounds.height -= screenInsets.bottom;
-		    bounds.width -= screenInsets.right;
-		    totalBounds = totalBounds.union(bounds);
-			if (primary) {
-				primaryBounds = primaryBounds.union(bounds);
-			}
-		}
-		return new Rectangle[] { primaryBounds, totalBounds };
+		ScreenTopology topology = ScreenTopology.getInstance();
+		return new Rectangle[] { topology.getPrimaryBounds(), topology.getTotalBounds() };
 	}
 	
 	/**
@@ -233,25 +216,14 @@ public class GraphicsUtil {
 	 * value when the window was created. This method returns the
 	 * screen that the window is currently displayed on
 	 * (use {@link GraphicsDevice#getDefaultConfiguration()} for the graphics configuration).
+	 * <br>Uses the screens from the {@link ScreenTopology}.
 	 */
 	public static GraphicsDevice getCurrentScreen(Window window) {
 
-		window.getGraphics();
-		GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-		GraphicsDevice[] screens = ge.getScreenDevices();
-		GraphicsDevice screen = null;
+		ScreenTopology topology = ScreenTopology.getInstance();
 		Point windowLocation = window.getLocationOnScreen();
-		for (int i = 0; i < screens.length; i++) {
-			Rectangle screenBounds = screens[i].getDefaultConfiguration().getBounds();
-			int x = (int) windowLocation.getX();
-			int y = (int) windowLocation.getY();
-			if (x >= screenBounds.x && x <= screenBounds.x + screenBounds.width
-					&& y >= screenBounds.y && y <= screenBounds.y + screenBounds.height) {
-				screen = screens[i];
-				break;
-			}
-		}
-		return (screen == null ? ge.getDefaultScreenDevice() : screen);
+		GraphicsDevice screen = topology.getDeviceAt(windowLocation.x, windowLocation.y);
+		return (screen == null ? topology.getDefaultDevice() : screen);
 	}
 
 	/**
@@ -263,7 +235,7 @@ public class GraphicsUtil {
 
 		GraphicsConfiguration gc = window.getGraphicsConfiguration();
 		if (gc == null) {
-			gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+			gc = ScreenTopology.getInstance().getDefaultDevice().getDefaultConfiguration();
 		}
 		positionAtMiddleOfScreen(window, gc);
 	}
@@ -274,7 +246,10 @@ public class GraphicsUtil {
 	public static void positionAtMiddleOfScreen(Window window, GraphicsConfiguration gc) {
 		
 		Rectangle screenBounds = gc.getBounds();
-		Insets screenInsets = Toolkit.getDefaultToolkit().getScreenInsets(gc);
+		Insets screenInsets = ScreenTopology.getInstance().getInsets(gc.getDevice());
+		if (screenInsets == null) {
+			screenInsets = Toolkit.getDefaultToolkit().getScreenInsets(gc);
+		}
 		Dimension windowSize = window.getSize();
 		int screenWidth = screenBounds.width - screenInsets.left - screenInsets.right;
 		int screenHeight = screenBounds.height - screenInsets.top - screenInsets.bottom;
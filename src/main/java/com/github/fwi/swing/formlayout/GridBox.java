@@ -0,0 +1,47 @@
+package com.github.fwi.swing.formlayout;
+
+import javax.swing.SwingConstants;
+
+/**
+ * A container using a {@link FormGridLayoutManager}
+ * to layout components in a grid, row by row, with the given amount of columns per row.
+ * <br>A grid of label/field pairs can be layed out with one grid-box
+ * instead of a {@link PageBox} containing a {@link LineBox} for each row.
+ * <br>See also {@link AbstractBox}
+ */
+public class GridBox extends AbstractBox {
+
+	private static final long serialVersionUID = -3381409870735516470L;
+
+	public GridBox(int columns) {
+		this(null, columns);
+	}
+
+	public GridBox(FormGraphics fg, int columns) {
+		this(fg, columns, 0.0);
+	}
+
+	/**
+	 * Constructs a grid box.
+	 * @param fg used in the layout
+	 * @param columns the amount of columns per row
+	 * @param maxGrowX see {@link #setMaxGrowX(double)}.
+	 */
+	public GridBox(FormGraphics fg, int columns, double maxGrowX) {
+		super();
+		setFormGraphics(fg);
+		setMaxGrowX(maxGrowX);
+		setDirection(SwingConstants.HORIZONTAL);
+		setLayout(new FormGridLayoutManager(fg, columns));
+	}
+
+	public int getColumns() {
+		return ((FormGridLayoutManager) getLayout()).getColumns();
+	}
+
+	public void setColumns(int columns) {
+		((FormGridLayoutManager) getLayout()).setColumns(columns);
+		revalidate();
+	}
+
+}
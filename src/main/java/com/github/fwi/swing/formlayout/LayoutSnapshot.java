@@ -0,0 +1,316 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.ComponentOrientation;
+import java.awt.Container;
+import java.awt.Insets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static javax.swing.SwingConstants.HORIZONTAL;
+
+/**
+ * An immutable copy of everything a {@link FormLayoutManager} needs to lay out a container:
+ * the min/pref/max sizes of the components, the layout sizes, gaps, insets and orientation.
+ * Boxes within the container that use a (plain) form layout manager are copied as well.
+ * <br>The bounds of all components for a container size can be calculated from the snapshot on any thread
+ * with {@link #compute(int, int)} or {@link #computeParallel(int, int)},
+ * the calculation is the same as the layout by the form layout manager.
+ * A result can only be applied as long as the layout managers were not invalidated
+ * (other than for a new container size) after the snapshot was taken, see {@link Result#isStale()}.
+ * <p>
+ * Containers using a sub-class of the form layout manager (e.g. a {@link GridBox}) or a layout manager
+ * for a {@link MirrorBox} are not copied: these are laid out as usual.
+ */
+public class LayoutSnapshot {
+
+	/**
+	 * Takes a snapshot of the container and the boxes within the container.
+	 * Must be called on the event dispatch thread.
+	 * @return null if the container does not use a (plain) form layout manager.
+	 */
+	public static LayoutSnapshot take(Container target) {
+
+		if (!isSupported(target)) {
+			return null;
+		}
+		synchronized (target.getTreeLock()) {
+			return new LayoutSnapshot(target, (FormLayoutManager) target.getLayout());
+		}
+	}
+
+	protected static boolean isSupported(Container target) {
+
+		return (target.getLayout() != null && target.getLayout().getClass() == FormLayoutManager.class
+				&& !((FormLayoutManager) target.getLayout()).isUseMirrorSizes());
+	}
+
+	protected final Container target;
+	protected final FormLayoutManager layout;
+	protected final int generation;
+	protected final int direction;
+	protected final int gap;
+	protected final Insets insets;
+	protected final boolean ltr;
+	protected final int prefLayoutWidth, prefLayoutHeight;
+	protected final Component[] components;
+	protected final boolean[] visible;
+	protected final int[] minWidth, minHeight, prefWidth, prefHeight, maxWidth, maxHeight;
+	/** Snapshots of boxes within the container, null for other components. */
+	protected final LayoutSnapshot[] children;
+	/** The amount of components (boxes within included) before each component, the last value is the total. */
+	protected final int[] treeSizes;
+
+	protected LayoutSnapshot(Container target, FormLayoutManager layout) {
+		super();
+		this.target = target;
+		this.layout = layout;
+		synchronized (layout) {
+			generation = layout.generation;
+			layout.ensureLayoutSizesSynced(target);
+			direction = layout.direction;
+			gap = (direction == HORIZONTAL ? layout.graphics.hgap : layout.graphics.vgap);
+			prefLayoutWidth = layout.prefLayoutSize.width;
+			prefLayoutHeight = layout.prefLayoutSize.height;
+		}
+		insets = target.getInsets();
+		ltr = (target.getComponentOrientation() != ComponentOrientation.RIGHT_TO_LEFT);
+		components = target.getComponents();
+		int size = components.length;
+		visible = new boolean[size];
+		minWidth = new int[size];
+		minHeight = new int[size];
+		prefWidth = new int[size];
+		prefHeight = new int[size];
+		maxWidth = new int[size];
+		maxHeight = new int[size];
+		children = new LayoutSnapshot[size];
+		treeSizes = new int[size + 1];
+		for (int i = 0; i < size; i++) {
+			Component c = components[i];
+			treeSizes[i + 1] = treeSizes[i] + 1;
+			visible[i] = c.isVisible();
+			if (!visible[i]) {
+				continue;
+			}
+			ComponentSizes cs;
+			synchronized (layout) {
+				cs = layout.getSizes(c);
+			}
+			minWidth[i] = cs.minSize().width;
+			minHeight[i] = cs.minSize().height;
+			prefWidth[i] = cs.prefSize().width;
+			prefHeight[i] = cs.prefSize().height;
+			maxWidth[i] = cs.maxSize().width;
+			maxHeight[i] = cs.maxSize().height;
+			if (c instanceof Container && isSupported((Container) c)) {
+				children[i] = new LayoutSnapshot((Container) c, (FormLayoutManager) ((Container) c).getLayout());
+				treeSizes[i + 1] += children[i].treeSize();
+			}
+		}
+	}
+
+	/**
+	 * The amount of components in the container and all boxes within.
+	 */
+	public int treeSize() {
+		return treeSizes[components.length];
+	}
+
+	public Container getTarget() { return target; }
+
+	/**
+	 * The bounds of the components for the container size (same calculation as {@link FormLayoutManager#layoutContainer(Container)}),
+	 * including the bounds within the boxes in the container. Can be called on any thread.
+	 */
+	public Result compute(int width, int height) {
+
+		Result result = computeBounds(width, height);
+		for (int i = 0; i < children.length; i++) {
+			if (children[i] != null) {
+				result.children[i] = children[i].compute(result.bounds[i * 4 + 2], result.bounds[i * 4 + 3]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Same as {@link #compute(int, int)} but the boxes within the container are calculated in parallel 
+	 * in the common fork-join pool: ranges of boxes with at least {@link #PARALLEL_THRESHOLD} components in total
+	 * are split in two tasks.
+	 */
+	public Result computeParallel(int width, int height) {
+
+		Result result = computeBounds(width, height);
+		ForkJoinPool.commonPool().invoke(new ComputeChildren(result, 0, components.length));
+		return result;
+	}
+
+	/** The minimum amount of components (boxes included) to calculate in a separate fork-join task. */
+	public static final int PARALLEL_THRESHOLD = 2048;
+
+	/**
+	 * Calculates the results for a range of boxes within a container.
+	 */
+	protected static class ComputeChildren extends RecursiveAction {
+
+		private static final long serialVersionUID = 3346585367458221012L;
+
+		protected final Result result;
+		protected final int from, to;
+
+		protected ComputeChildren(Result result, int from, int to) {
+			super();
+			this.result = result;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+
+			LayoutSnapshot snapshot = result.snapshot;
+			if (to - from > 1 && snapshot.treeSizes[to] - snapshot.treeSizes[from] >= PARALLEL_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ComputeChildren(result, from, middle), new ComputeChildren(result, middle, to));
+				return;
+			}
+			for (int i = from; i < to; i++) {
+				LayoutSnapshot child = snapshot.children[i];
+				if (child == null) {
+					continue;
+				}
+				int w = result.bounds[i * 4 + 2];
+				int h = result.bounds[i * 4 + 3];
+				if (child.treeSize() < PARALLEL_THRESHOLD) {
+					result.children[i] = child.compute(w, h);
+				} else {
+					Result childResult = child.computeBounds(w, h);
+					new ComputeChildren(childResult, 0, child.components.length).compute();
+					result.children[i] = childResult;
+				}
+			}
+		}
+	}
+
+	/**
+	 * The bounds of the components in this container only (the results for boxes within the container are not set).
+	 */
+	protected Result computeBounds(int width, int height) {
+
+		int size = components.length;
+		boolean horizontal = (direction == HORIZONTAL);
+		int varSize = (horizontal ? width - prefLayoutWidth : height - prefLayoutHeight);
+		int[] prefs = new int[size];
+		int[] limits = new int[size];
+		for (int i = 0; i < size; i++) {
+			prefs[i] = (horizontal ? prefWidth[i] : prefHeight[i]);
+			// invisible components do not change size.
+			limits[i] = (!visible[i] ? prefs[i] : varSize > 0 ? (horizontal ? maxWidth[i] : maxHeight[i])
+					: (horizontal ? minWidth[i] : minHeight[i]));
+		}
+		int[] varSizes = new int[size];
+		FormLayoutManager.calculateVarSizes(varSize, prefs, limits, varSizes);
+
+		Result result = new Result(this, width, height);
+		int x = (ltr ? insets.left : width - insets.left);
+		int y = insets.top;
+		int availableSize = (horizontal ? height - insets.top - insets.bottom : width - insets.left - insets.right);
+		for (int i = 0; i < size; i++) {
+			if (!visible[i]) {
+				continue;
+			}
+			int sizex, sizey;
+			if (horizontal) {
+				sizex = prefWidth[i] + varSizes[i];
+				sizey = (maxHeight[i] < availableSize ? maxHeight[i] : minHeight[i] > availableSize ? minHeight[i] : availableSize);
+				result.extents[i] = sizex + gap;
+			} else {
+				sizey = prefHeight[i] + varSizes[i];
+				sizex = (maxWidth[i] < availableSize ? maxWidth[i] : minWidth[i] > availableSize ? minWidth[i] : availableSize);
+				result.extents[i] = sizey + gap;
+			}
+			int b = i * 4;
+			result.bounds[b] = (ltr ? x : x - sizex);
+			result.bounds[b + 1] = y;
+			result.bounds[b + 2] = sizex;
+			result.bounds[b + 3] = sizey;
+			if (horizontal) {
+				x = (ltr ? x + sizex + gap : x - sizex - gap);
+			} else {
+				y += sizey + gap;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * True if a layout manager in the snapshot was invalidated (other than for a new container size)
+	 * after the snapshot was taken.
+	 */
+	public boolean isStale() {
+
+		if (layout.generation != generation) {
+			return true;
+		}
+		for (LayoutSnapshot child : children) {
+			if (child != null && child.isStale()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The bounds of the components of a snapshot for a container size.
+	 */
+	public static class Result {
+
+		protected final LayoutSnapshot snapshot;
+		protected final int width, height;
+		/** x, y, width and height per component, all zero for invisible components. */
+		protected final int[] bounds;
+		/** The size in the layout direction plus gap per component, zero for invisible components. */
+		protected final int[] extents;
+		/** The results for the boxes within the container, null for other components. */
+		protected final Result[] children;
+
+		protected Result(LayoutSnapshot snapshot, int width, int height) {
+			super();
+			this.snapshot = snapshot;
+			this.width = width;
+			this.height = height;
+			int size = snapshot.components.length;
+			bounds = new int[size * 4];
+			extents = new int[size];
+			children = new Result[size];
+		}
+
+		public LayoutSnapshot getSnapshot() { return snapshot; }
+		public int getWidth() { return width; }
+		public int getHeight() { return height; }
+
+		/**
+		 * See {@link LayoutSnapshot#isStale()}.
+		 */
+		public boolean isStale() {
+			return snapshot.isStale();
+		}
+
+		/**
+		 * Hands this result and the results for the boxes within the container to the layout managers,
+		 * a layout manager uses the result when the container is laid out with the size of the result.
+		 * Can be called on any thread.
+		 */
+		public void offer() {
+
+			snapshot.layout.offerPrecomputed(this);
+			for (Result child : children) {
+				if (child != null) {
+					child.offer();
+				}
+			}
+		}
+	}
+
+}
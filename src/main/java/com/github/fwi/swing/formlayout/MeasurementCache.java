@@ -0,0 +1,153 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.AbstractButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.UIManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An optional cache for the min/pref/max-sizes of components without form-constraints,
+ * shared by all {@link FormLayoutManager}s (via {@link ComponentSizes}).
+ * Disabled by default, see {@link #enable(int)}.
+ * <br>Only {@link JLabel}s and {@link AbstractButton}s are cached. The sizes are cached for the state
+ * that determines the sizes: component class, look and feel, UI delegate class, font, text, icon,
+ * insets (border and margin), text positions, icon-text gap and enabled-state.
+ * Many components with the same state (e.g. the same captions repeated in rows) are measured only once,
+ * which saves time for labels with HTML text.
+ * <br>Components with explicitly set sizes (e.g. {@link JComponent#setPreferredSize(Dimension)}) are not cached.
+ * <p>
+ * The cache has a maximum amount of entries, the least recently used entry is removed when the cache is full.
+ */
+public class MeasurementCache {
+
+	private static final Logger log = LoggerFactory.getLogger(MeasurementCache.class);
+
+	private static volatile MeasurementCache instance;
+
+	/**
+	 * The shared cache, null if the cache is not enabled.
+	 */
+	public static MeasurementCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Enables the shared cache (replacing any previous cache).
+	 * @param maxEntries the maximum amount of cached measurements.
+	 */
+	public static void enable(int maxEntries) {
+		instance = new MeasurementCache(maxEntries);
+	}
+
+	public static void disable() {
+		instance = null;
+	}
+
+	protected final int maxEntries;
+	protected final Map<List<Object>, Dimension[]> cache;
+	private long hits, misses;
+
+	public MeasurementCache(int maxEntries) {
+		super();
+		this.maxEntries = Math.max(1, maxEntries);
+		cache = new LinkedHashMap<List<Object>, Dimension[]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 6245393001633457563L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Object>, Dimension[]> eldest) {
+				return size() > MeasurementCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns the min, pref and max-size (in that order) for the component,
+	 * measured once for components with the same state.
+	 * @return null if the component can not be cached.
+	 */
+	public Dimension[] getSizes(Component c) {
+
+		List<Object> key = createKey(c);
+		if (key == null) {
+			return null;
+		}
+		Dimension[] sizes;
+		synchronized (this) {
+			sizes = cache.get(key);
+			if (sizes == null) {
+				misses++;
+			} else {
+				hits++;
+			}
+		}
+		if (sizes == null) {
+			sizes = new Dimension[] { c.getMinimumSize(), c.getPreferredSize(), c.getMaximumSize() };
+			synchronized (this) {
+				cache.put(key, sizes);
+			}
+			if (log.isTraceEnabled()) {
+				log.trace("Measured {} - {}", c.getClass().getSimpleName(), sizes[1]);
+			}
+		}
+		// Callers own the returned dimensions.
+		return new Dimension[] { new Dimension(sizes[0]), new Dimension(sizes[1]), new Dimension(sizes[2]) };
+	}
+
+	/**
+	 * Creates the key for a component with all state that determines the sizes of the component.
+	 * @return null if the component can not be cached.
+	 */
+	protected List<Object> createKey(Component c) {
+
+		if (!(c instanceof JLabel || c instanceof AbstractButton)) {
+			return null;
+		}
+		JComponent jc = (JComponent) c;
+		if (jc.isMinimumSizeSet() || jc.isPreferredSizeSet() || jc.isMaximumSizeSet()) {
+			return null;
+		}
+		Object ui;
+		if (c instanceof JLabel) {
+			JLabel l = (JLabel) c;
+			ui = l.getUI();
+			return Arrays.asList(c.getClass(), UIManager.getLookAndFeel(), (ui == null ? null : ui.getClass()),
+					c.getGraphicsConfiguration(), c.getFont(), l.getText(),
+					l.getIcon(), (c.isEnabled() ? null : l.getDisabledIcon()), jc.getInsets(),
+					l.getIconTextGap(), l.getHorizontalTextPosition(), l.getVerticalTextPosition(),
+					c.isEnabled());
+		}
+		AbstractButton b = (AbstractButton) c;
+		ui = b.getUI();
+		return Arrays.asList(c.getClass(), UIManager.getLookAndFeel(), (ui == null ? null : ui.getClass()),
+				c.getGraphicsConfiguration(), c.getFont(), b.getText(),
+				b.getIcon(), (c.isEnabled() ? null : b.getDisabledIcon()), jc.getInsets(),
+				b.getIconTextGap(), b.getHorizontalTextPosition(), b.getVerticalTextPosition(),
+				c.isEnabled(), b.isBorderPainted(), b.isRolloverEnabled());
+	}
+
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+}
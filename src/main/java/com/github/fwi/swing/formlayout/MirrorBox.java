@@ -1,6 +1,5 @@
 package com.github.fwi.swing.formlayout;
 
-import java.awt.Canvas;
 import java.awt.Component;
 import java.awt.Dimension;
 
@@ -10,15 +9,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A mirror-box mimics the sizes of another box but does not display anything (empty canvas), or,
+ * A mirror-box mimics the sizes of another box but does not display anything (empty filler), or,
  * in case one or more components are added, draws the components according to the min/pref/max-sizes of the mirrored box.
- * <br>The first case (empty canvas) can be used to keep boxes aligned, 
+ * <br>The first case (empty filler) can be used to keep boxes aligned, 
  * allthough it never works perfectly for all window sizes but it can be good enough.
  * <br>The second case (components are added) can be used to make boxes with different components
  * keep the same sizing behavior. This also helps alignment of boxes but it does require the
  * components in the mirror-box to adjust their grow/shrink rates to fit within the boundaries of the mirror-box
  * (e.g. the total minimum size of the mirror-box will not be the total minimum size of all components
  * in the mirror-box because the minimum size is fixed to the minimum size of the mirrored box).  
+ * <br>To keep many boxes aligned, consider a {@link SizeGroup} which does work for all window sizes.
  */
 public class MirrorBox extends AbstractBox {
 
@@ -31,6 +31,8 @@ public class MirrorBox extends AbstractBox {
 	protected transient FormLayoutManager mirrorLayout;
 	protected boolean haveComponents;
 	protected final transient Component mirrorTarget;
+	/** True while this box is counted as a mirror of the target box (see {@link AbstractBox#isValidateRoot()}). */
+	protected transient boolean mirrorCounted;
 
 	/**
 	 * See {@link MirrorBox#MirrorBox(FormGraphics, Component)}
@@ -69,6 +71,7 @@ public class MirrorBox extends AbstractBox {
 		mirrorLayout.setUseMirrorSizes(true);
 		setLayout(mirrorLayout);
 		mirrorTarget = target;
+		countMirror(true);
 		super.addImpl(mirrorCanvas = new MirrorCanvas(), null, -1);
 	}
 	
@@ -83,6 +86,42 @@ public class MirrorBox extends AbstractBox {
 		super.addImpl(comp, constraints, index);
 	}
 	
+	/**
+	 * Counts this box as a mirror of the target box again when it is added to a displayable container after a removal.
+	 */
+	@Override
+	public void addNotify() {
+
+		countMirror(true);
+		super.addNotify();
+	}
+
+	/**
+	 * This box no longer counts as a mirror of the target box after it is removed from a displayable container
+	 * so that the target box can be a validate root again.
+	 */
+	@Override
+	public void removeNotify() {
+
+		super.removeNotify();
+		countMirror(false);
+	}
+
+	protected void countMirror(boolean counted) {
+
+		if (mirrorCounted != counted && mirrorTarget instanceof AbstractBox) {
+			((AbstractBox) mirrorTarget).mirrorCount += (counted ? 1 : -1);
+			mirrorCounted = counted;
+		}
+	}
+
+	/**
+	 * The component/container this box mimics the sizes from.
+	 */
+	public Component getMirrorTarget() {
+		return mirrorTarget;
+	}
+
 	@Override
 	public Dimension getMinimumSize() {
 		return mirrorTarget.getMinimumSize();
@@ -106,7 +145,7 @@ public class MirrorBox extends AbstractBox {
 	 * Inner class of a {@link MirrorBox} acting as a proxy for the sizes of the target component/container.
 	 */
 	@SuppressWarnings("serial")
-	class MirrorCanvas extends Canvas {
+	class MirrorCanvas extends Filler {
 
 		@Override
 		public boolean isVisible() {
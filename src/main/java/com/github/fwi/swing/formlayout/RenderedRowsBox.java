@@ -0,0 +1,416 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.ComponentOrientation;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.swing.CellRendererPane;
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A read-only box for (very) many rows of the same shape, painted similar to a JTable:
+ * only the row data and the {@link FormConstraints} per column are kept,
+ * each visible cell is painted using one shared renderer component per column (via a {@link CellRendererPane}).
+ * <br>Column widths are calculated with the same rules as the {@link FormLayoutManager} uses for a {@link LineBox},
+ * all rows have the same height (the largest preferred height of the columns) and are separated by the vertical gap.
+ * <br>When an editor-factory is set (see {@link #setEditorFactory(BiFunction)}),
+ * a real component is created for a cell when the cell is clicked (or when the box gets the focus)
+ * and removed again when the editor loses the focus.
+ * @param <D> the type of row data.
+ */
+public class RenderedRowsBox<D> extends JComponent implements Scrollable {
+
+	private static final long serialVersionUID = -2745532071489305398L;
+
+	private static final Logger log = LoggerFactory.getLogger(RenderedRowsBox.class);
+
+	protected FormGraphics formGraphics;
+	protected final List<FormConstraints> columnConstraints = new ArrayList<>();
+	protected final List<Function<? super D, ? extends Component>> renderers = new ArrayList<>();
+	protected final CellRendererPane rendererPane = new CellRendererPane();
+	protected List<? extends D> rows = Collections.emptyList();
+	protected BiFunction<? super D, Integer, ? extends Component> editorFactory;
+	protected Component editor;
+	protected int editingRow = -1, editingColumn = -1;
+
+	/*
+	 * Column sizes and row height, calculated when needed.
+	 */
+	protected int[] colMin, colPref, colMax;
+	protected int[] colWidths;
+	protected int colWidthsFor = -1;
+	protected int rowHeight = -1;
+
+	public RenderedRowsBox() {
+		this(null);
+	}
+
+	public RenderedRowsBox(FormGraphics fg) {
+		super();
+		formGraphics = (fg == null ? FormGraphics.getInstance() : fg);
+		setLayout(null);
+		add(rendererPane);
+		MouseAdapter ma = new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent e) {
+				if (editorFactory != null) {
+					editCell(rowAt(e.getY()), columnAt(e.getX()));
+				}
+			}
+		};
+		addMouseListener(ma);
+		addFocusListener(new FocusAdapter() {
+			@Override
+			public void focusGained(FocusEvent e) {
+				if (editorFactory != null && editor == null && !rows.isEmpty()) {
+					editCell(Math.max(0, editingRow), Math.max(0, editingColumn));
+				}
+			}
+		});
+	}
+
+	public FormGraphics getFormGraphics() { return formGraphics; }
+
+	/**
+	 * Adds a column.
+	 * @param fc the form-constraints for the column (null for {@link FormConstraints#DEFAULT}).
+	 * @param renderer configures and returns the shared renderer component for the row data
+	 * (e.g. sets the text of a label and returns the label).
+	 */
+	public RenderedRowsBox<D> addColumn(FormConstraints fc, Function<? super D, ? extends Component> renderer) {
+
+		columnConstraints.add(fc == null ? FormConstraints.DEFAULT : fc);
+		renderers.add(renderer);
+		invalidateSizes();
+		return this;
+	}
+
+	public int getColumnCount() {
+		return renderers.size();
+	}
+
+	public List<? extends D> getRows() {
+		return rows;
+	}
+
+	/**
+	 * Sets the row data (the list is not copied), call again after the list changed.
+	 */
+	public void setRows(List<? extends D> rows) {
+
+		stopEditing();
+		this.rows = (rows == null ? Collections.<D>emptyList() : rows);
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * Sets the factory that creates an editor component for a cell (row data and column index).
+	 * The editor is responsible for updating the row data, the box is repainted when the editor is removed.
+	 */
+	public void setEditorFactory(BiFunction<? super D, Integer, ? extends Component> editorFactory) {
+
+		this.editorFactory = editorFactory;
+		setFocusable(editorFactory != null);
+	}
+
+	/* *** Sizes *** */
+
+	protected void invalidateSizes() {
+
+		colMin = colPref = colMax = colWidths = null;
+		rowHeight = -1;
+		colWidthsFor = -1;
+	}
+
+	@Override
+	public void invalidate() {
+		invalidateSizes();
+		super.invalidate();
+	}
+
+	protected void calculateSizes() {
+
+		if (colMin != null) {
+			return;
+		}
+		int cols = columnConstraints.size();
+		colMin = new int[cols];
+		colPref = new int[cols];
+		colMax = new int[cols];
+		rowHeight = 0;
+		for (int i = 0; i < cols; i++) {
+			FormConstraints fc = columnConstraints.get(i);
+			colMin[i] = fc.minWidth(formGraphics);
+			colPref[i] = fc.prefWidth(formGraphics);
+			colMax[i] = fc.maxWidth(formGraphics);
+			rowHeight = Math.max(rowHeight, fc.prefHeight(formGraphics));
+		}
+	}
+
+	protected Dimension layoutSize(int[] widths) {
+
+		calculateSizes();
+		Insets insets = getInsets();
+		int width = insets.left + insets.right + Math.max(0, widths.length - 1) * formGraphics.hgap;
+		for (int w : widths) {
+			width += w;
+		}
+		int height = insets.top + insets.bottom + rows.size() * rowHeight + Math.max(0, rows.size() - 1) * formGraphics.vgap;
+		return new Dimension(FormConstraints.wihtinWindowWidth(formGraphics, width), height);
+	}
+
+	@Override
+	public Dimension getMinimumSize() {
+
+		if (isMinimumSizeSet()) {
+			return super.getMinimumSize();
+		}
+		calculateSizes();
+		return layoutSize(colMin);
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+
+		if (isPreferredSizeSet()) {
+			return super.getPreferredSize();
+		}
+		calculateSizes();
+		return layoutSize(colPref);
+	}
+
+	@Override
+	public Dimension getMaximumSize() {
+
+		if (isMaximumSizeSet()) {
+			return super.getMaximumSize();
+		}
+		calculateSizes();
+		return layoutSize(colMax);
+	}
+
+	/**
+	 * The column widths for the current width, see {@link FormLayoutManager#calculateVarSizes(int, int[], int[], int[])}.
+	 */
+	protected int[] getColumnWidths() {
+
+		calculateSizes();
+		if (colWidths != null && colWidthsFor == getWidth()) {
+			return colWidths;
+		}
+		int varSize = getWidth() - layoutSize(colPref).width;
+		int[] widths = new int[colPref.length];
+		FormLayoutManager.calculateVarSizes(varSize, colPref, (varSize > 0 ? colMax : colMin), widths);
+		for (int i = 0; i < widths.length; i++) {
+			widths[i] += colPref[i];
+		}
+		colWidths = widths;
+		colWidthsFor = getWidth();
+		return widths;
+	}
+
+	/**
+	 * The bounds of a cell, also for rows that are not visible.
+	 */
+	public Rectangle getCellBounds(int row, int column) {
+
+		int[] widths = getColumnWidths();
+		Insets insets = getInsets();
+		boolean ltr = (getComponentOrientation() != ComponentOrientation.RIGHT_TO_LEFT);
+		int x = insets.left;
+		for (int i = 0; i < column; i++) {
+			x += widths[i] + formGraphics.hgap;
+		}
+		if (!ltr) {
+			x = getWidth() - x - widths[column];
+		}
+		int y = insets.top + row * (rowHeight + formGraphics.vgap);
+		FormConstraints fc = columnConstraints.get(column);
+		int height = Math.max(fc.minHeight(formGraphics), Math.min(fc.maxHeight(formGraphics), rowHeight));
+		return new Rectangle(x, y, widths[column], height);
+	}
+
+	/**
+	 * The row at the y-position (gaps belong to the row above), or -1.
+	 */
+	public int rowAt(int y) {
+
+		calculateSizes();
+		if (rowHeight + formGraphics.vgap <= 0 || y < getInsets().top) {
+			return -1;
+		}
+		int row = (y - getInsets().top) / (rowHeight + formGraphics.vgap);
+		return (row >= rows.size() ? -1 : row);
+	}
+
+	/**
+	 * The column at the x-position (gaps belong to the column before), or -1.
+	 */
+	public int columnAt(int x) {
+
+		int[] widths = getColumnWidths();
+		Insets insets = getInsets();
+		int position = (getComponentOrientation() != ComponentOrientation.RIGHT_TO_LEFT ?
+				x - insets.left : getWidth() - insets.left - 1 - x);
+		if (position < 0) {
+			return -1;
+		}
+		for (int i = 0; i < widths.length; i++) {
+			position -= widths[i] + formGraphics.hgap;
+			if (position < 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/* *** Painting *** */
+
+	@Override
+	protected void paintComponent(Graphics g) {
+
+		super.paintComponent(g);
+		if (rows.isEmpty() || renderers.isEmpty()) {
+			return;
+		}
+		calculateSizes();
+		if (rowHeight + formGraphics.vgap <= 0) {
+			return;
+		}
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) {
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+		int first = Math.max(0, (clip.y - getInsets().top) / (rowHeight + formGraphics.vgap));
+		int last = Math.min(rows.size() - 1, (clip.y + clip.height - getInsets().top) / (rowHeight + formGraphics.vgap));
+		for (int row = first; row <= last; row++) {
+			D data = rows.get(row);
+			for (int col = 0; col < renderers.size(); col++) {
+				if (row == editingRow && col == editingColumn && editor != null) {
+					continue;
+				}
+				Rectangle cell = getCellBounds(row, col);
+				if (!cell.intersects(clip)) {
+					continue;
+				}
+				Component renderer = renderers.get(col).apply(data);
+				rendererPane.paintComponent(g, renderer, this, cell.x, cell.y, cell.width, cell.height, true);
+			}
+		}
+		rendererPane.removeAll();
+	}
+
+	/* *** Editing *** */
+
+	/**
+	 * Replaces the painted cell with an editor component from the editor-factory.
+	 */
+	public void editCell(int row, int column) {
+
+		if (editorFactory == null || row < 0 || column < 0 || row >= rows.size() || column >= renderers.size()) {
+			return;
+		}
+		stopEditing();
+		Component c = editorFactory.apply(rows.get(row), column);
+		if (c == null) {
+			return;
+		}
+		editor = c;
+		editingRow = row;
+		editingColumn = column;
+		editor.addFocusListener(new FocusAdapter() {
+			@Override
+			public void focusLost(FocusEvent e) {
+				if (!e.isTemporary() && e.getComponent() == editor) {
+					stopEditing();
+				}
+			}
+		});
+		add(editor);
+		editor.setBounds(getCellBounds(row, column));
+		editor.validate();
+		editor.requestFocusInWindow();
+		repaint(editor.getBounds());
+		if (log.isDebugEnabled()) {
+			log.debug("Editing row {} column {}", row, column);
+		}
+	}
+
+	/**
+	 * Removes the editor component (if any).
+	 */
+	public void stopEditing() {
+
+		if (editor == null) {
+			return;
+		}
+		Rectangle bounds = editor.getBounds();
+		remove(editor);
+		editor = null;
+		repaint(bounds);
+	}
+
+	public boolean isEditing() {
+		return (editor != null);
+	}
+
+	public int getEditingRow() { return editingRow; }
+	public int getEditingColumn() { return editingColumn; }
+
+	@Override
+	public void doLayout() {
+
+		if (editor != null) {
+			editor.setBounds(getCellBounds(editingRow, editingColumn));
+		}
+	}
+
+	/* *** Scrollable methods *** */
+
+	@Override
+	public Dimension getPreferredScrollableViewportSize() {
+		return getPreferredSize();
+	}
+
+	@Override
+	public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+
+		calculateSizes();
+		return (orientation == SwingConstants.VERTICAL ? rowHeight + formGraphics.vgap : formGraphics.dwidth + formGraphics.hgap);
+	}
+
+	@Override
+	public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return (orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width);
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		return (getParent() instanceof JViewport && getParent().getWidth() >= getMinimumSize().width);
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportHeight() {
+		return false;
+	}
+
+}
@@ -0,0 +1,205 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The bounds and insets of all screens, queried once and cached for {@link GraphicsUtil}.
+ * <br>The cached topology is replaced when the screen devices change (a screen is added or removed),
+ * when the bounds of a screen change (e.g. a resolution or scaling change), when the topology is older than
+ * {@link #MaxAgeMillis} (e.g. a moved taskbar only changes the insets which are not checked on each call)
+ * or when {@link #refresh()} is called.
+ * There are only a few screens, finding the screen for a location is a scan over the cached bounds.
+ */
+public class ScreenTopology {
+
+	private static final Logger log = LoggerFactory.getLogger(ScreenTopology.class);
+
+	private static volatile ScreenTopology instance;
+
+	/**
+	 * The maximum age of the cached topology, defaults to 2 seconds. 
+	 * An older topology is replaced so that changed screen insets are picked up.
+	 */
+	public static volatile long MaxAgeMillis = 2000L;
+
+	/**
+	 * The cached topology, replaced by a new topology if the screens changed (see {@link ScreenTopology}).
+	 */
+	public static ScreenTopology getInstance() {
+
+		ScreenTopology topology = instance;
+		if (topology == null || topology.isOutdated()) {
+			topology = refresh();
+		}
+		return topology;
+	}
+
+	/**
+	 * Queries all screens and replaces the cached topology.
+	 */
+	public static ScreenTopology refresh() {
+
+		ScreenTopology topology = new ScreenTopology();
+		instance = topology;
+		if (log.isDebugEnabled()) {
+			log.debug("Screen topology with {} screens, total bounds {}", topology.devices.length, topology.totalBounds);
+		}
+		return topology;
+	}
+
+	protected final GraphicsDevice[] devices;
+	protected final GraphicsDevice defaultDevice;
+	protected final Rectangle[] bounds;
+	protected final Insets[] insets;
+	protected final Rectangle primaryBounds;
+	protected final Rectangle totalBounds;
+	protected final long createdNanos = System.nanoTime();
+
+	protected ScreenTopology() {
+		super();
+		GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
+		defaultDevice = ge.getDefaultScreenDevice();
+		devices = ge.getScreenDevices();
+		bounds = new Rectangle[devices.length];
+		insets = new Insets[devices.length];
+		Rectangle total = new Rectangle();
+		Rectangle primary = new Rectangle();
+		for (int i = 0; i < devices.length; i++) {
+			GraphicsConfiguration gc = devices[i].getDefaultConfiguration();
+			bounds[i] = gc.getBounds();
+			insets[i] = Toolkit.getDefaultToolkit().getScreenInsets(gc);
+			// same calculation as always used for the screen sizes.
+			Rectangle usable = new Rectangle(bounds[i]);
+			usable.x += insets[i].left;
+			usable.y += insets[i].top;
+			usable.height -= insets[i].bottom;
+			usable.width -= insets[i].right;
+			total = total.union(usable);
+			if (devices[i] == defaultDevice) {
+				primary = primary.union(usable);
+			}
+		}
+		totalBounds = total;
+		primaryBounds = primary;
+	}
+
+	/**
+	 * True if the topology is older than {@link #MaxAgeMillis} or if the screen devices or their bounds changed.
+	 */
+	protected boolean isOutdated() {
+
+		if (System.nanoTime() - createdNanos > TimeUnit.MILLISECONDS.toNanos(MaxAgeMillis)) {
+			return true;
+		}
+		return devicesChanged();
+	}
+
+	protected boolean devicesChanged() {
+
+		GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
+		if (ge.getDefaultScreenDevice() != defaultDevice) {
+			return true;
+		}
+		GraphicsDevice[] current = ge.getScreenDevices();
+		if (current.length != devices.length) {
+			return true;
+		}
+		for (int i = 0; i < current.length; i++) {
+			if (current[i] != devices[i] || !bounds[i].equals(current[i].getDefaultConfiguration().getBounds())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * All screens.
+	 */
+	public GraphicsDevice[] getDevices() {
+		return devices.clone();
+	}
+
+	public GraphicsDevice getDefaultDevice() {
+		return defaultDevice;
+	}
+
+	/**
+	 * See {@link GraphicsUtil#getScreenSizes()}.
+	 */
+	public Rectangle getPrimaryBounds() {
+		return new Rectangle(primaryBounds);
+	}
+
+	/**
+	 * See {@link GraphicsUtil#getScreenSizes()}.
+	 */
+	public Rectangle getTotalBounds() {
+		return new Rectangle(totalBounds);
+	}
+
+	/**
+	 * The screen containing the location (edges included), or null.
+	 */
+	public GraphicsDevice getDeviceAt(int x, int y) {
+
+		for (int i = 0; i < bounds.length; i++) {
+			Rectangle b = bounds[i];
+			if (x >= b.x && x <= b.x + b.width && y >= b.y && y <= b.y + b.height) {
+				return devices[i];
+			}
+		}
+		return null;
+	}
+
+	protected int indexOf(GraphicsDevice device) {
+
+		for (int i = 0; i < devices.length; i++) {
+			if (devices[i] == device) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * The bounds of the screen, or null if the screen is not known.
+	 */
+	public Rectangle getBounds(GraphicsDevice device) {
+
+		int i = indexOf(device);
+		return (i < 0 ? null : new Rectangle(bounds[i]));
+	}
+
+	/**
+	 * The bounds of the screen without the insets (e.g. the size of a maximized window), or null if the screen is not known.
+	 */
+	public Rectangle getUsableBounds(GraphicsDevice device) {
+
+		int i = indexOf(device);
+		if (i < 0) {
+			return null;
+		}
+		Insets in = insets[i];
+		Rectangle b = bounds[i];
+		return new Rectangle(b.x + in.left, b.y + in.top, b.width - in.left - in.right, b.height - in.top - in.bottom);
+	}
+
+	/**
+	 * The insets of the screen (e.g. a taskbar), or null if the screen is not known.
+	 */
+	public Insets getInsets(GraphicsDevice device) {
+
+		int i = indexOf(device);
+		return (i < 0 ? null : (Insets) insets[i].clone());
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Dimension;
+
+import com.github.fwi.swing.formlayout.builder.RowTemplate;
+
+/**
+ * Form-constraints shared by many components (e.g. the rows created from a {@link RowTemplate})
+ * that calculate the pixel sizes once per {@link FormGraphics}.
+ * <br>The calculated sizes are re-used as long as the form-constraints values and the relevant
+ * {@link FormGraphics} values (default and maximum window sizes) do not change.
+ */
+public class SharedFormConstraints extends FormConstraints {
+
+	private FormGraphics sizesGraphics;
+	private int dwidth, dheight, maxWindowWidth, maxWindowHeight;
+	private double csizex, csizey, cgrowx, cgrowy, cshrinkx, cshrinky;
+	private Dimension min, pref, max;
+
+	public SharedFormConstraints() {
+		this((String) null);
+	}
+
+	/**
+	 * See {@link FormConstraints#FormConstraints(String)}.
+	 */
+	public SharedFormConstraints(String constraints) {
+		super(constraints);
+	}
+
+	/**
+	 * Copies the values of the given form-constraints.
+	 */
+	public SharedFormConstraints(FormConstraints values) {
+		super(EMPTY_STRING);
+		setValues(values);
+	}
+
+	@Override
+	public FormConstraints copy() {
+		return new SharedFormConstraints(this);
+	}
+
+	@Override
+	public synchronized Dimension minSize(FormGraphics fg) {
+		calculateSizes(fg);
+		return new Dimension(min);
+	}
+
+	@Override
+	public synchronized Dimension prefSize(FormGraphics fg) {
+		calculateSizes(fg);
+		return new Dimension(pref);
+	}
+
+	@Override
+	public synchronized Dimension maxSize(FormGraphics fg) {
+		calculateSizes(fg);
+		return new Dimension(max);
+	}
+
+	protected void calculateSizes(FormGraphics fg) {
+
+		if (fg == sizesGraphics && fg.dwidth == dwidth && fg.dheight == dheight
+				&& fg.maxWindowWidth == maxWindowWidth && fg.maxWindowHeight == maxWindowHeight
+				&& sizex == csizex && sizey == csizey && growx == cgrowx && growy == cgrowy
+				&& shrinkx == cshrinkx && shrinky == cshrinky) {
+			return;
+		}
+		min = super.minSize(fg);
+		pref = super.prefSize(fg);
+		max = super.maxSize(fg);
+		sizesGraphics = fg;
+		dwidth = fg.dwidth;
+		dheight = fg.dheight;
+		maxWindowWidth = fg.maxWindowWidth;
+		maxWindowHeight = fg.maxWindowHeight;
+		csizex = sizex;
+		csizey = sizey;
+		cgrowx = growx;
+		cgrowy = growy;
+		cshrinkx = shrinkx;
+		cshrinky = shrinky;
+	}
+
+}
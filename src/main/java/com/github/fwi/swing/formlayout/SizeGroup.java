@@ -0,0 +1,262 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JComponent;
+import javax.swing.SwingConstants;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A size-group shares the min/pref/max-sizes of its members in one direction:
+ * the width for {@link SwingConstants#HORIZONTAL} or the height for {@link SwingConstants#VERTICAL}.
+ * The shared size is the largest size of all visible members.
+ * <br>Members can be placed in different containers (e.g. labels or label-field boxes in different rows of a {@link PageBox})
+ * and will all get the same size from the {@link FormLayoutManager} via {@link ComponentSizes}.
+ * This keeps columns aligned without the need for (chains of) {@link MirrorBox}es.
+ * <p>
+ * The sizes of members are measured once and kept until the {@link FormLayoutManager} of the member's parent container
+ * is invalidated. The shared sizes are only re-calculated when a member was re-measured.
+ * If the shared sizes change, all containers of the members are revalidated (once, after the current event).
+ * <br>A component can only be a member of one size-group.
+ */
+public class SizeGroup {
+
+	private static final Logger log = LoggerFactory.getLogger(SizeGroup.class);
+
+	/**
+	 * Returns the size-group the component is a member of, or null.
+	 */
+	public static SizeGroup getSizeGroup(Component c) {
+		return (c instanceof JComponent ? (SizeGroup) ((JComponent) c).getClientProperty(SizeGroup.class) : null);
+	}
+
+	protected final int direction;
+	protected final Map<Component, Member> members = new IdentityHashMap<>();
+	protected final List<JComponent> memberList = new ArrayList<>();
+
+	private boolean calculated, stale, revalidateScheduled;
+	private int minSize, prefSize, maxSize;
+
+	/**
+	 * Shares widths, see also {@link #SizeGroup(int)}.
+	 */
+	public SizeGroup() {
+		this(SwingConstants.HORIZONTAL);
+	}
+
+	/**
+	 * @param direction either {@link SwingConstants#HORIZONTAL} to share widths
+	 * or {@link SwingConstants#VERTICAL} to share heights.
+	 */
+	public SizeGroup(int direction) {
+		super();
+		this.direction = (direction == SwingConstants.VERTICAL ? SwingConstants.VERTICAL : SwingConstants.HORIZONTAL);
+	}
+
+	/** Either {@link SwingConstants#HORIZONTAL}) or {@link SwingConstants#VERTICAL}). */
+	public int getDirection() { return direction; }
+
+	/**
+	 * Adds the component to this size-group (and removes it from any previous size-group).
+	 */
+	public synchronized SizeGroup add(JComponent c) {
+
+		SizeGroup previous = getSizeGroup(c);
+		if (previous == this) {
+			return this;
+		}
+		if (previous != null) {
+			previous.remove(c);
+		}
+		c.putClientProperty(SizeGroup.class, this);
+		members.put(c, new Member(c));
+		memberList.add(c);
+		stale = true;
+		if (c.getParent() != null && c.getParent().getLayout() instanceof FormLayoutManager) {
+			((FormLayoutManager) c.getParent().getLayout()).hasSizeGroups = true;
+		}
+		c.revalidate();
+		return this;
+	}
+
+	public synchronized SizeGroup remove(JComponent c) {
+
+		if (members.remove(c) == null) {
+			return this;
+		}
+		memberList.remove(c);
+		c.putClientProperty(SizeGroup.class, null);
+		calculated = false;
+		stale = true;
+		scheduleRevalidate();
+		return this;
+	}
+
+	public synchronized List<JComponent> getMembers() {
+		return Collections.unmodifiableList(new ArrayList<>(memberList));
+	}
+
+	/**
+	 * Called by the {@link FormLayoutManager} of the parent of the member
+	 * when the layout of the parent is invalidated: the sizes of the member are measured again
+	 * the next time the shared sizes are requested.
+	 */
+	public synchronized void invalidateMember(Component c) {
+
+		Member m = members.get(c);
+		if (m != null && !m.stale) {
+			m.stale = true;
+			stale = true;
+		}
+	}
+
+	public synchronized int getMinSize() {
+		calculateSizes();
+		return minSize;
+	}
+
+	public synchronized int getPrefSize() {
+		calculateSizes();
+		return prefSize;
+	}
+
+	public synchronized int getMaxSize() {
+		calculateSizes();
+		return maxSize;
+	}
+
+	/**
+	 * Used by {@link ComponentSizes} to apply the shared size.
+	 * @return the given size if it already has the shared size, else a new dimension with the shared size.
+	 */
+	public Dimension withGroupSize(Dimension size, int groupSize) {
+
+		if (direction == SwingConstants.HORIZONTAL) {
+			return (size.width == groupSize ? size : new Dimension(groupSize, size.height));
+		}
+		return (size.height == groupSize ? size : new Dimension(size.width, groupSize));
+	}
+
+	/*
+	 * Only stale members are measured again, the shared sizes are only fully re-calculated
+	 * when a member that had the largest size got smaller.
+	 */
+	protected void calculateSizes() {
+
+		if (calculated && !stale) {
+			return;
+		}
+		int prevMin = minSize, prevPref = prefSize, prevMax = maxSize;
+		boolean rescan = !calculated;
+		for (Member m : members.values()) {
+			if (!m.stale && calculated) {
+				continue;
+			}
+			int oldMin = m.min, oldPref = m.pref, oldMax = m.max;
+			m.measure();
+			if (m.min < oldMin && oldMin == minSize
+					|| m.pref < oldPref && oldPref == prefSize
+					|| m.max < oldMax && oldMax == maxSize) {
+				rescan = true;
+			} else {
+				minSize = Math.max(minSize, m.min);
+				prefSize = Math.max(prefSize, m.pref);
+				maxSize = Math.max(maxSize, m.max);
+			}
+		}
+		if (rescan) {
+			minSize = prefSize = maxSize = 0;
+			for (Member m : members.values()) {
+				minSize = Math.max(minSize, m.min);
+				prefSize = Math.max(prefSize, m.pref);
+				maxSize = Math.max(maxSize, m.max);
+			}
+		}
+		if (calculated && (prevMin != minSize || prevPref != prefSize || prevMax != maxSize)) {
+			scheduleRevalidate();
+		}
+		calculated = true;
+		stale = false;
+		if (log.isTraceEnabled()) {
+			log.trace("Size group {} calculated sizes {} / {} / {}", hashCode(), minSize, prefSize, maxSize);
+		}
+	}
+
+	/*
+	 * Members in other containers already used the previous shared size.
+	 * Revalidate after the current event so that the container currently being layed out is not disturbed.
+	 */
+	protected void scheduleRevalidate() {
+
+		if (revalidateScheduled) {
+			return;
+		}
+		revalidateScheduled = true;
+		EventQueue.invokeLater(() -> {
+			JComponent[] components;
+			synchronized (SizeGroup.this) {
+				revalidateScheduled = false;
+				components = memberList.toArray(new JComponent[memberList.size()]);
+			}
+			for (JComponent c : components) {
+				Container parent = c.getParent();
+				if (parent instanceof JComponent) {
+					((JComponent) parent).revalidate();
+				} else if (parent != null) {
+					parent.invalidate();
+				}
+			}
+		});
+	}
+
+	/**
+	 * The measured sizes of a member without the shared group size.
+	 */
+	protected class Member {
+
+		final JComponent c;
+		int min, pref, max;
+		boolean stale = true;
+
+		Member(JComponent c) {
+			this.c = c;
+		}
+
+		void measure() {
+
+			stale = false;
+			Container parent = c.getParent();
+			if (parent == null || !c.isVisible()) {
+				min = pref = max = 0;
+				return;
+			}
+			ComponentSizes cs;
+			if (parent.getLayout() instanceof FormLayoutManager) {
+				FormLayoutManager flm = (FormLayoutManager) parent.getLayout();
+				cs = new ComponentSizes(c, flm.getConstraints(c), flm.getFormGraphics());
+			} else {
+				cs = new ComponentSizes(c, null, FormGraphics.getInstance());
+			}
+			if (direction == SwingConstants.HORIZONTAL) {
+				min = cs.minSize().width;
+				pref = cs.prefSize().width;
+				max = cs.maxSize().width;
+			} else {
+				min = cs.minSize().height;
+				pref = cs.prefSize().height;
+				max = cs.maxSize().height;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.Window;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.WindowStateListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calculates the layout of the top-level box of a window in advance for the sizes the window is likely to get next:
+ * the restored (normal) window size and the size of a maximized window on each screen (see {@link ScreenTopology}).
+ * Maximizing, restoring or moving the window to another screen then applies the calculated bounds
+ * instead of measuring all components (see {@link FormLayoutManager#precompute(Container, java.util.Collection)}).
+ * <br>The calculation is started when the window did not change for a while (the idle delay)
+ * and runs on a low priority background thread.
+ * The box sizes are estimated from the window sizes, assuming the box grows and shrinks with the window.
+ * The decorations of a maximized window differ from those of a restored window (per platform),
+ * the size difference between the usable screen and the box is therefore measured once the window was maximized.
+ * Until then the decorations of the restored window are used, which can be a few pixels off:
+ * a layout calculated for a wrong size is not used, the window is then laid out as usual.
+ * <p>
+ * Must be used on the event dispatch thread.
+ */
+public class SpeculativeLayout {
+
+	private static final Logger log = LoggerFactory.getLogger(SpeculativeLayout.class);
+
+	/**
+	 * Calculates layouts in advance for the box (which must use a {@link FormLayoutManager}) in the window.
+	 */
+	public static SpeculativeLayout install(Window window, Container box) {
+
+		SpeculativeLayout speculative = new SpeculativeLayout(window, box);
+		speculative.start();
+		return speculative;
+	}
+
+	protected final Window window;
+	protected final Container box;
+	protected final Timer idleTimer;
+	protected Dimension restoredSize;
+	/** The window size minus the box size for the restored window. */
+	protected Dimension restoredDelta;
+	/** The usable screen size minus the box size measured for the maximized window, null if not yet maximized. */
+	protected Dimension maximizedDelta;
+
+	protected final ComponentListener windowListener = new ComponentAdapter() {
+		@Override
+		public void componentResized(ComponentEvent e) {
+			windowChanged();
+		}
+		@Override
+		public void componentMoved(ComponentEvent e) {
+			windowChanged();
+		}
+		@Override
+		public void componentShown(ComponentEvent e) {
+			windowChanged();
+		}
+	};
+
+	protected final WindowStateListener stateListener = e -> windowChanged();
+
+	protected SpeculativeLayout(Window window, Container box) {
+		super();
+		this.window = window;
+		this.box = box;
+		idleTimer = new Timer(500, e -> precompute());
+		idleTimer.setRepeats(false);
+	}
+
+	protected void start() {
+
+		window.addComponentListener(windowListener);
+		window.addWindowStateListener(stateListener);
+		windowChanged();
+	}
+
+	/**
+	 * Stops calculating layouts in advance.
+	 */
+	public void uninstall() {
+
+		idleTimer.stop();
+		window.removeComponentListener(windowListener);
+		window.removeWindowStateListener(stateListener);
+	}
+
+	/**
+	 * The time without changes to the window after which layouts are calculated, default 500 milliseconds.
+	 */
+	public void setIdleDelay(int millis) {
+		idleTimer.setInitialDelay(millis);
+	}
+
+	protected boolean isMaximized() {
+		return (window instanceof Frame && (((Frame) window).getExtendedState() & Frame.MAXIMIZED_BOTH) != 0);
+	}
+
+	protected void windowChanged() {
+
+		if (!isMaximized()) {
+			restoredSize = window.getSize();
+		}
+		idleTimer.restart();
+	}
+
+	/**
+	 * The likely box sizes: for the restored window size and for a maximized window on each screen,
+	 * the current box size excluded.
+	 */
+	public List<Dimension> getLikelyBoxSizes() {
+
+		List<Dimension> boxSizes = new ArrayList<>();
+		if (restoredSize != null && restoredDelta != null) {
+			addBoxSize(boxSizes, restoredSize, restoredDelta);
+		}
+		// estimated with the restored decorations until the window was maximized.
+		Dimension delta = (maximizedDelta == null ? restoredDelta : maximizedDelta);
+		if (delta != null) {
+			ScreenTopology topology = ScreenTopology.getInstance();
+			for (GraphicsDevice device : topology.getDevices()) {
+				addBoxSize(boxSizes, topology.getUsableBounds(device).getSize(), delta);
+			}
+		}
+		return boxSizes;
+	}
+
+	protected void addBoxSize(List<Dimension> boxSizes, Dimension size, Dimension delta) {
+
+		Dimension d = new Dimension(size.width - delta.width, size.height - delta.height);
+		if (d.width > 0 && d.height > 0 && !d.equals(box.getSize()) && !boxSizes.contains(d)) {
+			boxSizes.add(d);
+		}
+	}
+
+	/**
+	 * Measures the decorations around the box for the current window state (called when the box is valid).
+	 */
+	protected void measureDecorations() {
+
+		if (isMaximized()) {
+			GraphicsDevice device = (window.getGraphicsConfiguration() == null ? null : window.getGraphicsConfiguration().getDevice());
+			Rectangle usable = (device == null ? null : ScreenTopology.getInstance().getUsableBounds(device));
+			if (usable != null) {
+				maximizedDelta = new Dimension(usable.width - box.getWidth(), usable.height - box.getHeight());
+			}
+		} else {
+			restoredDelta = new Dimension(window.getWidth() - box.getWidth(), window.getHeight() - box.getHeight());
+		}
+	}
+
+	protected void precompute() {
+
+		if (!window.isShowing() || !box.isValid() || !(box.getLayout() instanceof FormLayoutManager)) {
+			return;
+		}
+		measureDecorations();
+		List<Dimension> sizes = getLikelyBoxSizes();
+		if (log.isDebugEnabled()) {
+			log.debug("Precomputing layouts for box sizes {}", sizes);
+		}
+		((FormLayoutManager) box.getLayout()).precompute(box, sizes);
+	}
+
+}
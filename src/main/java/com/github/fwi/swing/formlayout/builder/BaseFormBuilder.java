@@ -1,11 +1,13 @@
 package com.github.fwi.swing.formlayout.builder;
 
-import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Container;
 import java.awt.Font;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import javax.swing.BorderFactory;
@@ -18,12 +20,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fwi.swing.formlayout.AbstractBox;
+import com.github.fwi.swing.formlayout.Filler;
 import com.github.fwi.swing.formlayout.FormConstraints;
 import com.github.fwi.swing.formlayout.FormGraphics;
 import com.github.fwi.swing.formlayout.GraphicsUtil;
+import com.github.fwi.swing.formlayout.GridBox;
 import com.github.fwi.swing.formlayout.LineBox;
 import com.github.fwi.swing.formlayout.MirrorBox;
 import com.github.fwi.swing.formlayout.PageBox;
+import com.github.fwi.swing.formlayout.SizeGroup;
 
 /**
  * Helper base class for building a form using the generic fluent api design.
@@ -36,7 +41,6 @@ import com.github.fwi.swing.formlayout.PageBox;
  */
 public class BaseFormBuilder<T extends BaseFormBuilder<T>> {
 	
-	@SuppressWarnings("unused")
 	private static final Logger log = LoggerFactory.getLogger(BaseFormBuilder.class);
 
 	protected FormGraphics formGraphics;
@@ -46,6 +50,15 @@ public class BaseFormBuilder<T extends BaseFormBuilder<T>> {
 	protected boolean centered;
 	protected Font borderFont;
 	protected int containerIndex;
+	protected boolean flattenOnBuild;
+	protected int flattenedContainers;
+	protected boolean attachOnBuild;
+	/** Set when the first component is added to (or registered for) a container, see {@link #setAttachOnBuild(boolean)}. */
+	protected boolean componentsAdded;
+	/** Components to add per container when {@link #setAttachOnBuild(boolean)} is set. */
+	protected final Map<Container, List<PendingComponent>> pendingComponents = new IdentityHashMap<>();
+	/** The depth of containers below the root container, used to attach containers bottom-up. */
+	protected final Map<Container, Integer> pendingDepths = new IdentityHashMap<>();
 
 	public BaseFormBuilder(FormGraphics formGraphics, Container container) {
 		super();
@@ -67,12 +80,71 @@ public class BaseFormBuilder<T extends BaseFormBuilder<T>> {
 	
 	/**
 	 * Adds the current component if needed and returns the root-container.
+	 * <br>If {@link #setFlattenOnBuild(boolean)} is set, redundant boxes are removed from the form
+	 * (see {@link BoxFlattener}) and the amount of removed boxes is available via {@link #getFlattenedContainers()}.
 	 */
 	public Container build() {
+
 		addComponent();
+		if (!pendingComponents.isEmpty()) {
+			attachPending();
+		}
+		if (flattenOnBuild) {
+			flattenedContainers += BoxFlattener.flatten(containers.get(0));
+		}
 		return containers.get(0);
 	}
 
+	/**
+	 * See {@link #setAttachOnBuild(boolean)}.
+	 */
+	public boolean isAttachOnBuild() {
+		return attachOnBuild;
+	}
+
+	/**
+	 * Set to true to add components and containers to their parent containers when {@link #build()} is called
+	 * instead of directly. All components are then added in one pass (bottom-up, holding the tree-lock once)
+	 * and the sizes of the added containers are calculated in the same pass.
+	 * <br>Until {@link #build()} is called, added components and containers have no parent:
+	 * do not add components directly to containers from this builder (e.g. via {@link #getContainer()}).
+	 * Must be set before any component is added.
+	 * @throws IllegalStateException if the option changes after components were added.
+	 */
+	public T setAttachOnBuild(boolean attachOnBuild) {
+
+		if (attachOnBuild != this.attachOnBuild && (componentsAdded || component != null)) {
+			throw new IllegalStateException("Attach on build must be set before any component is added.");
+		}
+		this.attachOnBuild = attachOnBuild;
+		return me();
+	}
+
+	/**
+	 * See {@link #setFlattenOnBuild(boolean)}.
+	 */
+	public boolean isFlattenOnBuild() {
+		return flattenOnBuild;
+	}
+
+	/**
+	 * Set to true to remove redundant boxes (e.g. a line-box with just one component) from the form
+	 * when {@link #build()} is called. This results in the same layout with less containers.
+	 * <br>Removed boxes can no longer be used in the form: only use this option when the form is complete
+	 * and references to boxes (e.g. via {@link #getContainer()}) are no longer used.
+	 */
+	public T setFlattenOnBuild(boolean flattenOnBuild) {
+		this.flattenOnBuild = flattenOnBuild;
+		return me();
+	}
+
+	/**
+	 * The amount of containers removed by {@link #build()}, see {@link #setFlattenOnBuild(boolean)}.
+	 */
+	public int getFlattenedContainers() {
+		return flattenedContainers;
+	}
+
 	/**
 	 * The current/active container used to add components in.
 	 */
@@ -89,14 +161,10 @@ public class BaseFormBuilder<T extends BaseFormBuilder<T>> {
 	protected T addComponent() {
 
 		if (component != null) {
-			if (constraints == null) {
-				getContainer().add(component);
-			} else {
-				getContainer().add(component, constraints);
-				constraints = null;
-			}
+			addToContainer(component, constraints);
+			constraints = null;
 			if (centered) {
-				getContainer().add(new Canvas(), FormConstraints.FILLERX);
+				addToContainer(new Filler(), FormConstraints.FILLERX);
 				centered = false;
 			}
 			component = null;
@@ -104,6 +172,86 @@ public class BaseFormBuilder<T extends BaseFormBuilder<T>> {
 		return me();
 	}
 
+	/**
+	 * Adds the component to the current container, or registers the component for addition 
+	 * when {@link #setAttachOnBuild(boolean)} is set.
+	 */
+	protected void addToContainer(Component c, FormConstraints componentConstraints) {
+
+		componentsAdded = true;
+		if (!attachOnBuild) {
+			if (componentConstraints == null) {
+				getContainer().add(c);
+			} else {
+				getContainer().add(c, componentConstraints);
+			}
+			return;
+		}
+		Container parent = getContainer();
+		List<PendingComponent> pending = pendingComponents.get(parent);
+		if (pending == null) {
+			pending = new ArrayList<>();
+			pendingComponents.put(parent, pending);
+		}
+		pending.add(new PendingComponent(c, componentConstraints));
+		if (c instanceof Container) {
+			Integer parentDepth = pendingDepths.get(parent);
+			pendingDepths.put((Container) c, (parentDepth == null ? 1 : parentDepth + 1));
+		}
+	}
+
+	/**
+	 * Adds all pending components to their containers, deepest containers first,
+	 * and calculates the sizes of each container after the components are added.
+	 * The sizes are not calculated when {@link #setFlattenOnBuild(boolean)} is set:
+	 * flattening the form right after invalidates these sizes.
+	 */
+	protected void attachPending() {
+
+		List<Container> parents = new ArrayList<>(pendingComponents.keySet());
+		parents.sort((c1, c2) -> Integer.compare(depthOf(c2), depthOf(c1)));
+		Container root = containers.get(0);
+		synchronized (root.getTreeLock()) {
+			for (Container parent : parents) {
+				for (PendingComponent pc : pendingComponents.get(parent)) {
+					if (pc.constraints == null) {
+						parent.add(pc.component);
+					} else {
+						parent.add(pc.component, pc.constraints);
+					}
+				}
+				if (parent != root && !flattenOnBuild) {
+					parent.getPreferredSize();
+				}
+			}
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Attached components to {} containers", parents.size());
+		}
+		pendingComponents.clear();
+		pendingDepths.clear();
+	}
+
+	protected int depthOf(Container c) {
+
+		Integer depth = pendingDepths.get(c);
+		return (depth == null ? 0 : depth);
+	}
+
+	/**
+	 * A component to add to a container when the form is build.
+	 */
+	protected static class PendingComponent {
+
+		final Component component;
+		final FormConstraints constraints;
+
+		PendingComponent(Component component, FormConstraints constraints) {
+			this.component = component;
+			this.constraints = constraints;
+		}
+	}
+
 	/**
 	 * Go up one in the container-list.
 	 * @throws IndexOutOfBoundsException if current container is root container
@@ -126,7 +274,13 @@ public class BaseFormBuilder<T extends BaseFormBuilder<T>> {
 	public T upTo(Container c) {
 
 		addComponent();
-		int i = containers.indexOf(c);
+		int i = containerIndex;
+		while (i >= 0 && containers.get(i) != c) {
+			i--;
+		}
+		if (i < 0) {
+			i = containers.lastIndexOf(c);
+		}
 		if (i < 0) {
 			throw new NoSuchElementException("Container not available in hierarachy: " + c);
 		}
@@ -165,15 +319,19 @@ public class BaseFormBuilder<T extends BaseFormBuilder<T>> {
 			return me();
 		}
 		addComponent();
-		getContainer().add(container);
-		containers.add(++containerIndex, container);
-		while (containers.size() > containerIndex + 1) containers.remove(containers.size() - 1);
-		if (container instanceof AbstractBox) {
-			applyMaxGrowFromParentContainers((AbstractBox)container);
-		}
+		addToContainer(container, null);
+		containers.subList(containerIndex + 1, containers.size()).clear();
+		containers.add(container);
+		containerIndex++;
 		return me();
 	}
 	
+	/**
+	 * Copies max-grow sizes from parent boxes to the given box.
+	 * @deprecated no longer used, boxes keep track of the max-grow sizes of parent boxes, 
+	 * see {@link AbstractBox#getEffectiveMaxGrowX()}.
+	 */
+	@Deprecated
 	protected T applyMaxGrowFromParentContainers(AbstractBox box) {
 		
 		for (int i = 0; i < containerIndex; i++) {
@@ -208,6 +366,32 @@ public class BaseFormBuilder<T extends BaseFormBuilder<T>> {
 		return addContainer(new LineBox(formGraphics, maxGrowY));
 	}
 
+	/**
+	 * Adds a row (line-box) per data-item to the current container using the row-template.
+	 * All rows share the form-constraints (and calculated sizes) from the row-template.
+	 * The current container does not change.
+	 */
+	public <D> T addRows(RowTemplate<D> template, Iterable<? extends D> data) {
+
+		addComponent();
+		for (D item : data) {
+			addToContainer(template.createRow(formGraphics, item), null);
+		}
+		return me();
+	}
+
+	/**
+	 * Adds a {@link GridBox}, components added to the grid-box fill the rows of the grid one by one.
+	 * @param columns the amount of columns per row.
+	 */
+	public T addGridBox(int columns) {
+		return addGridBox(columns, 0.0);
+	}
+
+	public T addGridBox(int columns, double maxGrowX) {
+		return addContainer(new GridBox(formGraphics, columns, maxGrowX));
+	}
+
 	/**
 	 * See {@link #addMirrorBox(Component, int)}.
 	 * <br>The direction is taken from the given target box if possible,
@@ -259,6 +443,15 @@ public class BaseFormBuilder<T extends BaseFormBuilder<T>> {
 		return up().addContainer(mirrorContainer).up();
 	}
 
+	/**
+	 * Adds the current container to the given size-group, 
+	 * e.g. to keep all label-field line-boxes in a page-box aligned. 
+	 */
+	public T withSizeGroup(SizeGroup sizeGroup) {
+		sizeGroup.add((JComponent)getContainer());
+		return me();
+	}
+
 	public T withGapInsets() {
 		return withInsets(formGraphics.vgap, formGraphics.hgap);
 	}
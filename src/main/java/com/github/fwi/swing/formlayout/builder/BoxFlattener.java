@@ -0,0 +1,136 @@
+package com.github.fwi.swing.formlayout.builder;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fwi.swing.formlayout.AbstractBox;
+import com.github.fwi.swing.formlayout.FormConstraints;
+import com.github.fwi.swing.formlayout.FormLayoutManager;
+import com.github.fwi.swing.formlayout.LineBox;
+import com.github.fwi.swing.formlayout.MirrorBox;
+import com.github.fwi.swing.formlayout.PageBox;
+import com.github.fwi.swing.formlayout.SizeGroup;
+
+/**
+ * Removes redundant boxes from a form, used by {@link BaseFormBuilder#build()} when
+ * {@link BaseFormBuilder#setFlattenOnBuild(boolean)} is set.
+ * <br>Only "plain" {@link LineBox}es and {@link PageBox}es are removed:
+ * boxes without border (insets), (effective) max-grow, scroll-option, explicit sizes or size-group,
+ * that are not mimicked by a {@link MirrorBox} and that are added to their parent without form-constraints.
+ * Two cases are handled, both result in the same layout:
+ * <ul>
+ * <li>a plain box with one (visible) component: the component replaces the box in the parent
+ * (with the form-constraints the component had in the box).
+ * <li>a plain box that is the only component in a parent with the same direction:
+ * the components (and their form-constraints) of the box are moved to the parent.
+ * </ul>
+ * The root container is never removed.
+ */
+public class BoxFlattener {
+
+	private static final Logger log = LoggerFactory.getLogger(BoxFlattener.class);
+
+	protected final Set<Component> mirrorTargets = Collections.newSetFromMap(new IdentityHashMap<>());
+	protected int removed;
+
+	/**
+	 * Removes redundant boxes from the container-hierarchy below the root container.
+	 * @return the amount of removed containers.
+	 */
+	public static int flatten(Container root) {
+
+		BoxFlattener flattener = new BoxFlattener();
+		synchronized (root.getTreeLock()) {
+			flattener.findMirrorTargets(root);
+			flattener.flattenTree(root);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Removed {} redundant containers from {}", flattener.removed, root.getClass().getSimpleName());
+		}
+		return flattener.removed;
+	}
+
+	protected void findMirrorTargets(Container c) {
+
+		for (Component child : c.getComponents()) {
+			if (child instanceof MirrorBox) {
+				mirrorTargets.add(((MirrorBox) child).getMirrorTarget());
+			}
+			if (child instanceof Container) {
+				findMirrorTargets((Container) child);
+			}
+		}
+	}
+
+	protected void flattenTree(Container parent) {
+
+		for (Component child : parent.getComponents()) {
+			if (child instanceof AbstractBox || (child instanceof Container
+					&& ((Container) child).getLayout() instanceof FormLayoutManager)) {
+				flattenTree((Container) child);
+			}
+		}
+		if (!(parent.getLayout() instanceof FormLayoutManager)) {
+			return;
+		}
+		for (int i = 0; i < parent.getComponentCount(); i++) {
+			Component child = parent.getComponent(i);
+			if (isPlainBox(parent, child) && ((Container) child).getComponentCount() == 1
+					&& ((Container) child).getComponent(0).isVisible()) {
+				replaceBox(parent, (AbstractBox) child, i);
+			}
+		}
+		if (parent.getComponentCount() == 1 && isPlainBox(parent, parent.getComponent(0))
+				&& parent.getLayout().getClass() == FormLayoutManager.class
+				&& !((FormLayoutManager) parent.getLayout()).isUseMirrorSizes()
+				&& ((AbstractBox) parent.getComponent(0)).getDirection() == getDirection(parent)) {
+			replaceBox(parent, (AbstractBox) parent.getComponent(0), 0);
+		}
+	}
+
+	protected boolean isPlainBox(Container parent, Component c) {
+
+		if (c.getClass() != LineBox.class && c.getClass() != PageBox.class) {
+			return false;
+		}
+		AbstractBox box = (AbstractBox) c;
+		FormLayoutManager parentLayout = (FormLayoutManager) parent.getLayout();
+		return box.isVisible() && !box.isOpaque() && box.getBorder() == null
+				&& box.getEffectiveMaxGrowX() <= 0.0 && box.getEffectiveMaxGrowY() <= 0.0 && !box.isScrollToMinSize()
+				&& !box.isMinimumSizeSet() && !box.isPreferredSizeSet() && !box.isMaximumSizeSet()
+				&& SizeGroup.getSizeGroup(box) == null && !mirrorTargets.contains(box)
+				&& parentLayout.getConstraints(box) == null
+				&& box.getLayout() instanceof FormLayoutManager
+				&& ((FormLayoutManager) box.getLayout()).getFormGraphics() == parentLayout.getFormGraphics();
+	}
+
+	protected int getDirection(Container c) {
+		return (c instanceof AbstractBox ? ((AbstractBox) c).getDirection() : ((FormLayoutManager) c.getLayout()).getDirection());
+	}
+
+	/**
+	 * Moves all components from the box to the parent at the index of the box and removes the box.
+	 */
+	protected void replaceBox(Container parent, AbstractBox box, int index) {
+
+		FormLayoutManager boxLayout = (FormLayoutManager) box.getLayout();
+		Component[] children = box.getComponents();
+		FormConstraints[] constraints = new FormConstraints[children.length];
+		for (int i = 0; i < children.length; i++) {
+			constraints[i] = boxLayout.getConstraints(children[i]);
+		}
+		parent.remove(index);
+		box.removeAll();
+		for (int i = 0; i < children.length; i++) {
+			parent.add(children[i], constraints[i], index + i);
+		}
+		removed++;
+	}
+
+}
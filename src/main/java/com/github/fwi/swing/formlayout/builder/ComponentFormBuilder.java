@@ -1,18 +1,20 @@
 package com.github.fwi.swing.formlayout.builder;
 
-import java.awt.Canvas;
 import java.awt.Component;
 import java.awt.Container;
 
+import javax.swing.JComponent;
 import javax.swing.SwingConstants;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.fwi.swing.formlayout.AbstractBox;
+import com.github.fwi.swing.formlayout.Filler;
 import com.github.fwi.swing.formlayout.FixedGap;
 import com.github.fwi.swing.formlayout.FormConstraints;
 import com.github.fwi.swing.formlayout.FormGraphics;
+import com.github.fwi.swing.formlayout.SizeGroup;
 
 /**
  * Adds component size and constraint functions to the {@link BaseFormBuilder}.
@@ -78,7 +80,8 @@ public class ComponentFormBuilder<T extends ComponentFormBuilder<T>> extends Bas
 	/**
 	 * Uses the given form-constraints for the current component.
 	 * These form-constraints are not copied, they are used directly 
-	 * and subsequent call to growx/shrinkx will change the given form-constraints.
+	 * and subsequent call to growx/shrinkx will change the given form-constraints
+	 * (except for immutable form-constraints like {@link FormConstraints#FILLERX}, these are copied first).
 	 */
 	public T withSize(FormConstraints constraints) {
 		this.constraints = constraints;
@@ -92,23 +95,29 @@ public class ComponentFormBuilder<T extends ComponentFormBuilder<T>> extends Bas
 		return setDefaultConstraints();
 	}
 
+	/**
+	 * Ensures the current constraints can be changed:
+	 * sets a copy of {@link FormConstraints#DEFAULT} or copies immutable constraints.
+	 */
 	protected T setDefaultConstraints() {
 
 		if (constraints == null) {
 			constraints = FormConstraints.DEFAULT.copy();
+		} else if (constraints.isImmutable()) {
+			constraints = constraints.copy();
 		}
 		return me();
 	}
 
 	public T sizex(double amount) {
 		setDefaultConstraints();
-		constraints.sizex = amount;
+		constraints.setSizex(amount);
 		return me();
 	}
 
 	public T sizey(double amount) {
 		setDefaultConstraints();
-		constraints.sizey = amount;
+		constraints.setSizey(amount);
 		return me();
 	}
 
@@ -118,13 +127,13 @@ public class ComponentFormBuilder<T extends ComponentFormBuilder<T>> extends Bas
 
 	public T growx(double amount) {
 		setDefaultConstraints();
-		constraints.growx = amount;
+		constraints.setGrowx(amount);
 		return me();
 	}
 
 	public T growy(double amount) {
 		setDefaultConstraints();
-		constraints.growy = amount;
+		constraints.setGrowy(amount);
 		return me();
 	}
 
@@ -134,13 +143,13 @@ public class ComponentFormBuilder<T extends ComponentFormBuilder<T>> extends Bas
 
 	public T shrinkx(double amount) {
 		setDefaultConstraints();
-		constraints.shrinkx = amount;
+		constraints.setShrinkx(amount);
 		return me();
 	}
 
 	public T shrinky(double amount) {
 		setDefaultConstraints();
-		constraints.shrinky = amount;
+		constraints.setShrinky(amount);
 		return me();
 	}
 
@@ -148,14 +157,27 @@ public class ComponentFormBuilder<T extends ComponentFormBuilder<T>> extends Bas
 		return shrinkx(amount).shrinky(amount);
 	}
 
+	/**
+	 * Adds the current component to the given size-group.
+	 * @throws IllegalArgumentException if the current component is not a {@link JComponent}.
+	 */
+	public T inSizeGroup(SizeGroup sizeGroup) {
+
+		if (!(component instanceof JComponent)) {
+			throw new IllegalArgumentException("Only a JComponent can be a member of a size-group: " + component);
+		}
+		sizeGroup.add((JComponent) component);
+		return me();
+	}
+
 	public T addFillerx() {
-		return add(new Canvas()).withSize(FormConstraints.FILLERX);
+		return add(new Filler()).withSize(FormConstraints.FILLERX);
 	}
 	public T addFillery() {
-		return add(new Canvas()).withSize(FormConstraints.FILLERY);
+		return add(new Filler()).withSize(FormConstraints.FILLERY);
 	}
 	public T addFillerxy() {
-		return add(new Canvas()).withSize(FormConstraints.FILLERXY);
+		return add(new Filler()).withSize(FormConstraints.FILLERXY);
 	}
 
 	/**
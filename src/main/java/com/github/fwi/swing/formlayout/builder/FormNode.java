@@ -0,0 +1,189 @@
+package com.github.fwi.swing.formlayout.builder;
+
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.swing.JComponent;
+
+import com.github.fwi.swing.formlayout.FormConstraints;
+import com.github.fwi.swing.formlayout.FormGraphics;
+import com.github.fwi.swing.formlayout.GridBox;
+import com.github.fwi.swing.formlayout.LineBox;
+import com.github.fwi.swing.formlayout.PageBox;
+
+/**
+ * A declarative description of a form component: a key, a factory for the component,
+ * (optional) form-constraints, an (optional) update for the component and (for boxes) the child nodes.
+ * <br>A description is applied to a live container by the {@link FormReconciler}:
+ * components are matched by key, a component is only created when there is no component with the key.
+ * A key must always describe the same kind of component, use a new key to replace a component.
+ * <br>Example:
+ * <pre>
+ * FormNode&lt;PageBox&gt; form = FormNode.page("form")
+ *   .add(FormNode.line("name")
+ *     .add(FormNode.of("nameLabel", () -&gt; new JLabel("Name")).constraints("sizex:0.5"))
+ *     .add(FormNode.of("nameField", JTextField::new)));
+ * if (withAddress) {
+ *   form.add(FormNode.line("address") ... );
+ * }
+ * new FormReconciler().reconcile(pageBox, form);
+ * </pre>
+ * @param <C> the type of component.
+ */
+public class FormNode<C extends Component> {
+
+	/** Keys of components that are not a JComponent (e.g. a {@link com.github.fwi.swing.formlayout.Filler}). */
+	private static final Map<Component, String> keys = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * The key of the component, stored as client property, or null if the component has no key.
+	 */
+	public static String getKey(Component c) {
+		return (c instanceof JComponent ? (String) ((JComponent) c).getClientProperty(FormNode.class) : keys.get(c));
+	}
+
+	public static void setKey(Component c, String key) {
+
+		if (c instanceof JComponent) {
+			((JComponent) c).putClientProperty(FormNode.class, key);
+		} else if (key == null) {
+			keys.remove(c);
+		} else {
+			keys.put(c, key);
+		}
+	}
+
+	/**
+	 * A node for a component that does not need the form-graphics.
+	 */
+	public static <C extends Component> FormNode<C> of(String key, Supplier<? extends C> factory) {
+		return new FormNode<C>(key, fg -> factory.get());
+	}
+
+	/**
+	 * A node for a line-box, add child nodes for the components in the box.
+	 */
+	public static FormNode<LineBox> line(String key) {
+		return new FormNode<LineBox>(key, LineBox::new).withChildren();
+	}
+
+	/**
+	 * A node for a page-box, add child nodes for the components in the box.
+	 */
+	public static FormNode<PageBox> page(String key) {
+		return new FormNode<PageBox>(key, PageBox::new).withChildren();
+	}
+
+	/**
+	 * A node for a grid-box, add child nodes for the components in the box.
+	 */
+	public static FormNode<GridBox> grid(String key, int columns) {
+		return new FormNode<GridBox>(key, fg -> new GridBox(fg, columns)).withChildren();
+	}
+
+	protected final String key;
+	protected final Function<FormGraphics, ? extends C> factory;
+	protected FormConstraints constraints;
+	protected Consumer<? super C> update;
+	/** Null when the components within the component are not described (not reconciled). */
+	protected List<FormNode<?>> children;
+
+	/**
+	 * @param key identifies the component within the parent container.
+	 * @param factory creates the component using the form-graphics of the parent container.
+	 */
+	public FormNode(String key, Function<FormGraphics, ? extends C> factory) {
+		super();
+		if (key == null) {
+			throw new IllegalArgumentException("A form node must have a key.");
+		}
+		this.key = key;
+		this.factory = factory;
+	}
+
+	public String getKey() { return key; }
+
+	public FormConstraints getConstraints() { return constraints; }
+
+	/**
+	 * See {@link FormConstraints#FormConstraints(String)}.
+	 */
+	public FormNode<C> constraints(String constraints) {
+		return constraints(new FormConstraints(constraints));
+	}
+
+	/**
+	 * The form-constraints for the component, null (the default) to use the sizes of the component itself.
+	 */
+	public FormNode<C> constraints(FormConstraints constraints) {
+		this.constraints = constraints;
+		return this;
+	}
+
+	/**
+	 * Updates the component (e.g. a label text) when it is created and each time it is reconciled.
+	 */
+	public FormNode<C> update(Consumer<? super C> update) {
+		this.update = update;
+		return this;
+	}
+
+	/**
+	 * Describes the components within the component: components in the live container that are not described, are removed.
+	 */
+	public FormNode<C> withChildren() {
+		if (children == null) {
+			children = new ArrayList<>();
+		}
+		return this;
+	}
+
+	public FormNode<C> add(FormNode<?> child) {
+		withChildren().children.add(child);
+		return this;
+	}
+
+	public FormNode<C> add(Collection<? extends FormNode<?>> children) {
+		withChildren().children.addAll(children);
+		return this;
+	}
+
+	/**
+	 * The child nodes, null if the components within the component are not described.
+	 */
+	public List<FormNode<?>> getChildren() { return children; }
+
+	/**
+	 * Creates the component and sets the key.
+	 */
+	public C create(FormGraphics fg) {
+
+		C c = factory.apply(fg);
+		setKey(c, key);
+		return c;
+	}
+
+	/**
+	 * Applies the update (if any) to the component.
+	 */
+	@SuppressWarnings("unchecked")
+	public void applyUpdate(Component c) {
+		if (update != null) {
+			update.accept((C) c);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return key + (children == null ? "" : " " + children.size() + " children");
+	}
+
+}
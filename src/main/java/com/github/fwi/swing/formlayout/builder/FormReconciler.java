@@ -0,0 +1,199 @@
+package com.github.fwi.swing.formlayout.builder;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JComponent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fwi.swing.formlayout.AbstractBox;
+import com.github.fwi.swing.formlayout.FormFocusTraversalPolicy;
+import com.github.fwi.swing.formlayout.FormConstraints;
+import com.github.fwi.swing.formlayout.FormGraphics;
+import com.github.fwi.swing.formlayout.FormLayoutManager;
+
+/**
+ * Applies a {@link FormNode} description to a live container with a minimal set of changes,
+ * instead of removing all components and building the form again.
+ * <br>Components are matched with nodes by key (per container): components without a matching node are removed,
+ * nodes without a matching component are created (including all child nodes) and added,
+ * matching components are moved when the order changed and get the form-constraints of the node when the values changed.
+ * The components within matching components are reconciled with the child nodes.
+ * <br>For containers using a {@link FormLayoutManager}, the changes are made via {@link FormLayoutManager#updateComponents(Container, Runnable)}:
+ * components that stay in the container keep their cached sizes, unchanged boxes keep their layout.
+ * <p>
+ * Must be called on the event dispatch thread. An instance can be re-used, the counts are reset for each reconcile.
+ */
+public class FormReconciler {
+
+	private static final Logger log = LoggerFactory.getLogger(FormReconciler.class);
+
+	protected int created;
+	protected int removed;
+	protected int moved;
+	protected int changedConstraints;
+	protected int reused;
+
+	/** The amount of created components (child components of created boxes included) during the last reconcile. */
+	public int getCreated() { return created; }
+	/** The amount of removed components during the last reconcile. */
+	public int getRemoved() { return removed; }
+	/** The amount of moved components during the last reconcile. */
+	public int getMoved() { return moved; }
+	/** The amount of components with changed form-constraints during the last reconcile. */
+	public int getChangedConstraints() { return changedConstraints; }
+	/** The amount of components kept during the last reconcile. */
+	public int getReused() { return reused; }
+
+	/**
+	 * Applies the update and child nodes of the node to the root container (the key of the node is not used).
+	 */
+	public void reconcile(Container root, FormNode<?> node) {
+
+		created = removed = moved = changedConstraints = reused = 0;
+		node.applyUpdate(root);
+		if (node.getChildren() != null) {
+			reconcileChildren(root, node.getChildren());
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Reconciled {}: {} created, {} removed, {} moved, {} changed constraints, {} reused",
+					node.getKey(), created, removed, moved, changedConstraints, reused);
+		}
+	}
+
+	/**
+	 * Reconciles the components in the container with the nodes.
+	 */
+	public void reconcile(Container parent, List<? extends FormNode<?>> nodes) {
+
+		created = removed = moved = changedConstraints = reused = 0;
+		reconcileChildren(parent, nodes);
+		if (log.isDebugEnabled()) {
+			log.debug("Reconciled {} nodes: {} created, {} removed, {} moved, {} changed constraints, {} reused",
+					nodes.size(), created, removed, moved, changedConstraints, reused);
+		}
+	}
+
+	protected void reconcileChildren(Container parent, List<? extends FormNode<?>> nodes) {
+
+		FormGraphics fg = (parent instanceof AbstractBox ? ((AbstractBox) parent).getFormGraphics() : FormGraphics.getInstance());
+		FormLayoutManager layout = (parent.getLayout() instanceof FormLayoutManager ? (FormLayoutManager) parent.getLayout() : null);
+		Map<String, Component> current = new HashMap<>();
+		List<Component> toRemove = new ArrayList<>();
+		for (Component c : parent.getComponents()) {
+			String key = FormNode.getKey(c);
+			if (key == null || current.containsKey(key)) {
+				toRemove.add(c);
+			} else {
+				current.put(key, c);
+			}
+		}
+		int count = parent.getComponentCount();
+		int size = nodes.size();
+		Component[] wanted = new Component[size];
+		boolean[] isNew = new boolean[size];
+		boolean structural = false;
+		for (int i = 0; i < size; i++) {
+			FormNode<?> node = nodes.get(i);
+			Component c = current.remove(node.getKey());
+			if (c == null) {
+				// build the new component completely before it is added.
+				c = createComponent(node, fg);
+				isNew[i] = true;
+				structural = true;
+			} else if (i >= count || c != parent.getComponent(i)) {
+				structural = true;
+			}
+			wanted[i] = c;
+		}
+		toRemove.addAll(current.values());
+		if (!toRemove.isEmpty() || count != size) {
+			structural = true;
+		}
+		if (structural) {
+			Runnable changes = () -> {
+				for (Component c : toRemove) {
+					parent.remove(c);
+					removed++;
+				}
+				for (int i = 0; i < size; i++) {
+					Component c = wanted[i];
+					if (isNew[i]) {
+						parent.add(c, nodes.get(i).getConstraints(), i);
+					} else if (parent.getComponentZOrder(c) != i) {
+						parent.setComponentZOrder(c, i);
+						// moving within the parent fires no container event.
+						FormFocusTraversalPolicy.componentMoved(c);
+						moved++;
+					}
+				}
+			};
+			if (layout == null) {
+				changes.run();
+				if (parent instanceof JComponent) {
+					((JComponent) parent).revalidate();
+				}
+			} else {
+				layout.updateComponents(parent, changes);
+			}
+			parent.repaint();
+		}
+		for (int i = 0; i < size; i++) {
+			if (isNew[i]) {
+				continue;
+			}
+			Component c = wanted[i];
+			FormNode<?> node = nodes.get(i);
+			reused++;
+			if (layout != null && !sameValues(layout.getConstraints(c), node.getConstraints())) {
+				layout.setConstraints(c, node.getConstraints());
+				changedConstraints++;
+			}
+			node.applyUpdate(c);
+			if (node.getChildren() != null && c instanceof Container) {
+				reconcileChildren((Container) c, node.getChildren());
+			}
+		}
+	}
+
+	/**
+	 * Creates the component for the node, including the components for all child nodes.
+	 */
+	protected Component createComponent(FormNode<?> node, FormGraphics fg) {
+
+		Component c = node.create(fg);
+		created++;
+		node.applyUpdate(c);
+		if (node.getChildren() != null && c instanceof Container) {
+			Container container = (Container) c;
+			FormGraphics cfg = (c instanceof AbstractBox ? ((AbstractBox) c).getFormGraphics() : fg);
+			for (FormNode<?> child : node.getChildren()) {
+				container.add(createComponent(child, cfg), child.getConstraints());
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * True if both form-constraints are null or have the same values.
+	 */
+	protected static boolean sameValues(FormConstraints fc1, FormConstraints fc2) {
+
+		if (fc1 == fc2) {
+			return true;
+		}
+		if (fc1 == null || fc2 == null) {
+			return false;
+		}
+		return (fc1.sizex == fc2.sizex && fc1.sizey == fc2.sizey
+				&& fc1.growx == fc2.growx && fc1.growy == fc2.growy
+				&& fc1.shrinkx == fc2.shrinkx && fc1.shrinky == fc2.shrinky);
+	}
+
+}
@@ -0,0 +1,227 @@
+package com.github.fwi.swing.formlayout.builder;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.fwi.swing.formlayout.AbstractBox;
+import com.github.fwi.swing.formlayout.FormGraphics;
+import com.github.fwi.swing.formlayout.PageBox;
+
+/**
+ * Adds rows for (many) data-items to a container (e.g. a {@link PageBox}) without blocking the event dispatch thread:
+ * rows are created on a background thread and added to the container in batches on the event dispatch thread,
+ * with one layout per batch.
+ * <br>A batch is handed over when it contains the batch-size amount of rows or when the batch-time has passed
+ * since the first row of the batch was created, so that the first rows are shown quickly.
+ * The batch-time is kept by a (Swing) timer, rows are also shown when the data source blocks or is slow.
+ * At most two batches wait for the event dispatch thread, creating rows pauses when the event dispatch thread is busy.
+ * <br>Rows are created on a background thread of the row loader (loads of one row loader run one after another),
+ * or on the executor set via {@link #setExecutor(Executor)}.
+ * <p>
+ * Row components are created outside the event dispatch thread and must not be used elsewhere until added.
+ * @param <D> the type of row data.
+ */
+public class RowLoader<D> {
+
+	private static final Logger log = LoggerFactory.getLogger(RowLoader.class);
+
+	protected final Container container;
+	protected final Function<? super D, ? extends Component> rowFactory;
+	protected int batchSize = 100;
+	protected long batchMillis = 16L;
+	protected final Semaphore pendingBatches = new Semaphore(2);
+	protected Executor executor;
+
+	/**
+	 * @param container the container to add rows to.
+	 * @param rowFactory creates the row component for a data-item, called on a background thread.
+	 */
+	public RowLoader(Container container, Function<? super D, ? extends Component> rowFactory) {
+		super();
+		this.container = container;
+		this.rowFactory = rowFactory;
+	}
+
+	/**
+	 * Creates rows from the row-template using the {@link FormGraphics} of the container
+	 * (or the default if the container is not a box).
+	 */
+	public RowLoader(Container container, RowTemplate<D> template) {
+		this(container, item -> template.createRow(container instanceof AbstractBox
+				? ((AbstractBox) container).getFormGraphics() : FormGraphics.getInstance(), item));
+	}
+
+	public int getBatchSize() { return batchSize; }
+	/** The maximum amount of rows per batch, default 100. */
+	public RowLoader<D> setBatchSize(int batchSize) { this.batchSize = Math.max(1, batchSize); return this; }
+
+	public long getBatchMillis() { return batchMillis; }
+	/** The maximum time to collect rows for a batch, default 16 milliseconds. */
+	public RowLoader<D> setBatchMillis(long batchMillis) { this.batchMillis = Math.max(0L, batchMillis); return this; }
+
+	/**
+	 * The executor that creates the rows, by default a (daemon) thread of this row loader
+	 * that stops when idle.
+	 */
+	public synchronized Executor getExecutor() {
+
+		if (executor == null) {
+			ThreadPoolExecutor loaderThread = new ThreadPoolExecutor(1, 1, 10L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+				Thread t = new Thread(r, "formlayout-rowloader");
+				t.setDaemon(true);
+				return t;
+			});
+			loaderThread.allowCoreThreadTimeOut(true);
+			executor = loaderThread;
+		}
+		return executor;
+	}
+
+	/**
+	 * Sets the executor that creates the rows (a slow data source then only occupies this executor).
+	 */
+	public synchronized RowLoader<D> setExecutor(Executor executor) { this.executor = executor; return this; }
+
+	/**
+	 * See {@link #load(Iterator)}.
+	 */
+	public Future<Integer> load(Stream<? extends D> data) {
+		return load(data.iterator());
+	}
+
+	/**
+	 * Starts loading rows in the background.
+	 * @return the amount of added rows when done, cancel the future to stop loading.
+	 */
+	public Future<Integer> load(Iterator<? extends D> data) {
+
+		FutureTask<Integer> task = new FutureTask<>(() -> loadRows(data));
+		getExecutor().execute(task);
+		return task;
+	}
+
+	protected int loadRows(Iterator<? extends D> data) throws InterruptedException {
+
+		int rows = 0;
+		Batch batch = new Batch();
+		try {
+			while (data.hasNext()) {
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				if (batch.add(rowFactory.apply(data.next())) >= batchSize) {
+					handOver(batch.take());
+				}
+				rows++;
+			}
+			handOver(batch.take());
+		} finally {
+			batch.discard();
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Loaded {} rows into {}", rows, container.getClass().getSimpleName());
+		}
+		return rows;
+	}
+
+	/**
+	 * The rows created for the next batch. Rows are taken by the loader thread when the batch is full,
+	 * or by a timer on the event dispatch thread when the batch-time has passed.
+	 */
+	protected class Batch {
+
+		protected List<Component> rows = new ArrayList<>();
+		protected final Timer timer;
+
+		protected Batch() {
+			timer = new Timer((int) Math.min(Integer.MAX_VALUE, batchMillis), e -> {
+				List<Component> timedRows = take();
+				if (!timedRows.isEmpty()) {
+					addBatch(timedRows);
+				}
+			});
+			timer.setRepeats(false);
+		}
+
+		/**
+		 * @return the amount of rows in the batch.
+		 */
+		protected synchronized int add(Component row) {
+
+			rows.add(row);
+			if (rows.size() == 1) {
+				timer.start();
+			}
+			return rows.size();
+		}
+
+		protected synchronized List<Component> take() {
+
+			timer.stop();
+			List<Component> taken = rows;
+			rows = new ArrayList<>();
+			return taken;
+		}
+
+		protected synchronized void discard() {
+
+			timer.stop();
+			rows.clear();
+		}
+	}
+
+	protected void handOver(List<Component> batch) throws InterruptedException {
+
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		pendingBatches.acquire();
+		EventQueue.invokeLater(() -> {
+			try {
+				addBatch(batch);
+			} finally {
+				pendingBatches.release();
+			}
+		});
+	}
+
+	/**
+	 * Adds the rows to the container and revalidates the container once.
+	 * Runs on the event dispatch thread.
+	 */
+	protected void addBatch(List<Component> batch) {
+
+		synchronized (container.getTreeLock()) {
+			for (Component row : batch) {
+				container.add(row);
+			}
+		}
+		if (container instanceof JComponent) {
+			((JComponent) container).revalidate();
+		} else {
+			container.validate();
+		}
+		container.repaint();
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.github.fwi.swing.formlayout.builder;
+
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.github.fwi.swing.formlayout.FormConstraints;
+import com.github.fwi.swing.formlayout.FormGraphics;
+import com.github.fwi.swing.formlayout.LineBox;
+import com.github.fwi.swing.formlayout.SharedFormConstraints;
+
+/**
+ * The shape of a repeated form row (e.g. label, field, button): a list of columns,
+ * each with a component factory and (optional) form-constraints.
+ * <br>All rows created from a template share the same {@link SharedFormConstraints} per column:
+ * the constraints are created once and the pixel sizes are calculated once per {@link FormGraphics}.
+ * Rows are created via {@link #createRow(FormGraphics, Object)} or {@link BaseFormBuilder#addRows(RowTemplate, Iterable)}.
+ * <br>Example:
+ * <pre>
+ * RowTemplate&lt;Person&gt; t = new RowTemplate&lt;Person&gt;()
+ *   .add(p -&gt; new JLabel(p.name), "sizex:0.5")
+ *   .add(p -&gt; new JTextField(p.address), "growx:0");
+ * form.addRows(t, persons);
+ * </pre>
+ * @param <D> the type of row data.
+ */
+public class RowTemplate<D> {
+
+	protected final List<Function<? super D, ? extends Component>> factories = new ArrayList<>();
+	protected final List<SharedFormConstraints> constraints = new ArrayList<>();
+
+	/**
+	 * Adds a column with a component that uses its own sizes (no form-constraints).
+	 */
+	public RowTemplate<D> add(Function<? super D, ? extends Component> factory) {
+		return add(factory, (FormConstraints) null);
+	}
+
+	/**
+	 * Adds a column, see {@link FormConstraints#FormConstraints(String)} for the constraints.
+	 */
+	public RowTemplate<D> add(Function<? super D, ? extends Component> factory, String columnConstraints) {
+		return add(factory, new FormConstraints(columnConstraints));
+	}
+
+	/**
+	 * Adds a column with a copy of the given form-constraints (null for no form-constraints).
+	 */
+	public RowTemplate<D> add(Function<? super D, ? extends Component> factory, FormConstraints columnConstraints) {
+
+		factories.add(factory);
+		constraints.add(columnConstraints == null ? null : new SharedFormConstraints(columnConstraints));
+		return this;
+	}
+
+	public int getColumnCount() {
+		return factories.size();
+	}
+
+	/**
+	 * The form-constraints shared by all rows for the column, null if the column has no form-constraints.
+	 * Changes to the form-constraints (via the setters) apply to all rows.
+	 */
+	public SharedFormConstraints getConstraints(int column) {
+		return constraints.get(column);
+	}
+
+	/**
+	 * Creates a line-box with the components for the row data.
+	 */
+	public LineBox createRow(FormGraphics fg, D data) {
+
+		LineBox row = new LineBox(fg);
+		for (int i = 0; i < factories.size(); i++) {
+			Component c = factories.get(i).apply(data);
+			if (constraints.get(i) == null) {
+				row.add(c);
+			} else {
+				row.add(c, constraints.get(i));
+			}
+		}
+		return row;
+	}
+
+}
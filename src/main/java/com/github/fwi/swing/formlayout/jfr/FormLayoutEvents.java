@@ -0,0 +1,83 @@
+package com.github.fwi.swing.formlayout.jfr;
+
+import java.awt.Container;
+import java.awt.Dimension;
+
+import javax.swing.SwingConstants;
+
+/**
+ * Java Flight Recorder events for the {@link com.github.fwi.swing.formlayout.FormLayoutManager}:
+ * <tt>com.github.fwi.swing.formlayout.LayoutPass</tt>, <tt>com.github.fwi.swing.formlayout.SizeCalculation</tt>
+ * and <tt>com.github.fwi.swing.formlayout.Invalidate</tt> (category "Swing / Form Layout").
+ * <br>The events are only created when a flight recording with the events enabled is running,
+ * the overhead otherwise is negligible. On a Java runtime without flight recorder the methods in this class do nothing.
+ * <br>Give boxes a name (see {@link java.awt.Component#setName(String)}) to recognize them in a recording.
+ * <p>
+ * The methods returning an object start an event that must be passed to the corresponding commit-method,
+ * the returned object is null when the event is not recorded.
+ */
+public final class FormLayoutEvents {
+
+	/** Cause for invalidation: a child or the container itself changed, cached sizes were cleared. */
+	public static final String CAUSE_CONTAINER = "container";
+	/** Cause for invalidation: a container without cached sizes was invalidated again. */
+	public static final String CAUSE_REPEATED = "repeated";
+	/** Cause for invalidation: only the sizes of components with changed form-constraints were cleared. */
+	public static final String CAUSE_CONSTRAINTS = "constraints";
+	/** Cause for invalidation: the container is laid out again keeping the cached sizes
+	 * (e.g. a coalesced resize, an applied asynchronous layout or {@code FormLayoutManager.updateComponents}). */
+	public static final String CAUSE_RELAYOUT = "relayout";
+
+	public static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+	private FormLayoutEvents() {}
+
+	private static boolean isFlightRecorderAvailable() {
+
+		try {
+			Class.forName("jdk.jfr.Event");
+			return true;
+		} catch (Throwable t) {
+			return false;
+		}
+	}
+
+	public static Object beginLayoutPass() {
+		return (AVAILABLE ? LayoutPassEvent.start() : null);
+	}
+
+	public static void commitLayoutPass(Object event, Container target, int direction, int varSize) {
+
+		if (event != null) {
+			LayoutPassEvent.finish(event, target, direction, varSize);
+		}
+	}
+
+	public static Object beginSizeCalculation() {
+		return (AVAILABLE ? SizeCalculationEvent.start() : null);
+	}
+
+	public static void commitSizeCalculation(Object event, Container target, int direction, 
+			Dimension min, Dimension pref, Dimension max) {
+
+		if (event != null) {
+			SizeCalculationEvent.finish(event, target, direction, min, pref, max);
+		}
+	}
+
+	public static void invalidate(Container target, int direction, String cause) {
+
+		if (AVAILABLE) {
+			InvalidateEvent.record(target, direction, cause);
+		}
+	}
+
+	static String boxName(Container target) {
+		return (target.getName() == null ? target.getClass().getSimpleName() : target.getName());
+	}
+
+	static String directionName(int direction) {
+		return (direction == SwingConstants.HORIZONTAL ? "horizontal" : "vertical");
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.github.fwi.swing.formlayout.jfr;
+
+import java.awt.Container;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded when the cached sizes of a {@link com.github.fwi.swing.formlayout.FormLayoutManager} are invalidated.
+ * See {@link FormLayoutEvents} for the causes.
+ */
+@Name("com.github.fwi.swing.formlayout.Invalidate")
+@Label("Invalidate")
+@Category({ "Swing", "Form Layout" })
+@Description("Form layout manager clears the cached sizes of a box.")
+class InvalidateEvent extends Event {
+
+	@Label("Box")
+	String box;
+
+	@Label("Box Id")
+	@Description("Identity hash code of the box.")
+	int boxId;
+
+	@Label("Direction")
+	String direction;
+
+	@Label("Child Count")
+	int childCount;
+
+	@Label("Cause")
+	String cause;
+
+	static void record(Container target, int direction, String cause) {
+
+		InvalidateEvent event = new InvalidateEvent();
+		if (event.shouldCommit()) {
+			event.box = FormLayoutEvents.boxName(target);
+			event.boxId = System.identityHashCode(target);
+			event.direction = FormLayoutEvents.directionName(direction);
+			event.childCount = target.getComponentCount();
+			event.cause = cause;
+			event.commit();
+		}
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.github.fwi.swing.formlayout.jfr;
+
+import java.awt.Container;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded when a {@link com.github.fwi.swing.formlayout.FormLayoutManager} lays out the components of a container.
+ * The duration includes the calculation of the layout sizes if these were not yet available.
+ */
+@Name("com.github.fwi.swing.formlayout.LayoutPass")
+@Label("Layout Pass")
+@Category({ "Swing", "Form Layout" })
+@Description("Form layout manager positions and sizes the components in a box.")
+class LayoutPassEvent extends Event {
+
+	@Label("Box")
+	String box;
+
+	@Label("Box Id")
+	@Description("Identity hash code of the box.")
+	int boxId;
+
+	@Label("Direction")
+	String direction;
+
+	@Label("Child Count")
+	int childCount;
+
+	@Label("Variable Size")
+	@Description("Size to grow (positive) or shrink (negative) the components with.")
+	int varSize;
+
+	static Object start() {
+
+		LayoutPassEvent event = new LayoutPassEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	static void finish(Object started, Container target, int direction, int varSize) {
+
+		LayoutPassEvent event = (LayoutPassEvent) started;
+		event.end();
+		if (event.shouldCommit()) {
+			event.box = FormLayoutEvents.boxName(target);
+			event.boxId = System.identityHashCode(target);
+			event.direction = FormLayoutEvents.directionName(direction);
+			event.childCount = target.getComponentCount();
+			event.varSize = varSize;
+			event.commit();
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.github.fwi.swing.formlayout.jfr;
+
+import java.awt.Container;
+import java.awt.Dimension;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded when a {@link com.github.fwi.swing.formlayout.FormLayoutManager} calculates the min/pref/max layout sizes
+ * of a container from the sizes of the components.
+ */
+@Name("com.github.fwi.swing.formlayout.SizeCalculation")
+@Label("Size Calculation")
+@Category({ "Swing", "Form Layout" })
+@Description("Form layout manager calculates the minimum, preferred and maximum size of a box.")
+class SizeCalculationEvent extends Event {
+
+	@Label("Box")
+	String box;
+
+	@Label("Box Id")
+	@Description("Identity hash code of the box.")
+	int boxId;
+
+	@Label("Direction")
+	String direction;
+
+	@Label("Child Count")
+	int childCount;
+
+	@Label("Minimum Width")
+	int minWidth;
+
+	@Label("Minimum Height")
+	int minHeight;
+
+	@Label("Preferred Width")
+	int prefWidth;
+
+	@Label("Preferred Height")
+	int prefHeight;
+
+	@Label("Maximum Width")
+	int maxWidth;
+
+	@Label("Maximum Height")
+	int maxHeight;
+
+	static Object start() {
+
+		SizeCalculationEvent event = new SizeCalculationEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	static void finish(Object started, Container target, int direction, Dimension min, Dimension pref, Dimension max) {
+
+		SizeCalculationEvent event = (SizeCalculationEvent) started;
+		event.end();
+		if (event.shouldCommit()) {
+			event.box = FormLayoutEvents.boxName(target);
+			event.boxId = System.identityHashCode(target);
+			event.direction = FormLayoutEvents.directionName(direction);
+			event.childCount = target.getComponentCount();
+			if (min != null) {
+				event.minWidth = min.width;
+				event.minHeight = min.height;
+			}
+			if (pref != null) {
+				event.prefWidth = pref.width;
+				event.prefHeight = pref.height;
+			}
+			if (max != null) {
+				event.maxWidth = max.width;
+				event.maxHeight = max.height;
+			}
+			event.commit();
+		}
+	}
+
+}
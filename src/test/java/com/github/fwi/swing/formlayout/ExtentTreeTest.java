@@ -0,0 +1,70 @@
+package com.github.fwi.swing.formlayout;
+
+import java.util.Random;
+
+/**
+ * Compares {@link ExtentTree#offsetOf(int)} and {@link ExtentTree#indexAt(int)} with a linear scan
+ * over random extents (zero extents included), before and after updates.
+ */
+public class ExtentTreeTest {
+
+	public static void main(String[] args) {
+
+		Random random = new Random(42L);
+		int checked = 0;
+		for (int size : new int[] { 0, 1, 2, 3, 7, 8, 9, 100, 1025 }) {
+			int[] extents = new int[size];
+			for (int i = 0; i < size; i++) {
+				extents[i] = (random.nextInt(4) == 0 ? 0 : random.nextInt(30));
+			}
+			ExtentTree tree = new ExtentTree(extents.clone());
+			checked += check(tree, extents);
+			for (int update = 0; update < Math.min(size, 20); update++) {
+				int index = random.nextInt(size);
+				extents[index] = (random.nextBoolean() ? 0 : random.nextInt(50));
+				tree.set(index, extents[index]);
+				checked += check(tree, extents);
+			}
+		}
+		System.out.println("Extent tree same as linear scan for " + checked + " positions.");
+	}
+
+	static int check(ExtentTree tree, int[] extents) {
+
+		int offset = 0;
+		for (int i = 0; i <= extents.length; i++) {
+			if (tree.offsetOf(i) != offset) {
+				throw new AssertionError("offsetOf(" + i + ") is " + tree.offsetOf(i) + ", expected " + offset);
+			}
+			if (i < extents.length) {
+				offset += extents[i];
+			}
+		}
+		if (tree.total() != offset) {
+			throw new AssertionError("total is " + tree.total() + ", expected " + offset);
+		}
+		for (int position = -1; position <= offset; position++) {
+			int expected = linearIndexAt(extents, position);
+			if (tree.indexAt(position) != expected) {
+				throw new AssertionError("indexAt(" + position + ") is " + tree.indexAt(position) + ", expected " + expected);
+			}
+		}
+		return offset + 2;
+	}
+
+	static int linearIndexAt(int[] extents, int position) {
+
+		if (position < 0) {
+			return -1;
+		}
+		int offset = 0;
+		for (int i = 0; i < extents.length; i++) {
+			offset += extents[i];
+			if (position < offset) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
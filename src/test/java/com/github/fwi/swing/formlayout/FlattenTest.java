@@ -0,0 +1,73 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+
+import com.github.fwi.swing.formlayout.builder.SimpleFormBuilder;
+
+/**
+ * Builds the same form with and without {@link SimpleFormBuilder#setFlattenOnBuild(boolean)}
+ * and checks that the bounds of all (non-box) components are the same for several sizes.
+ * The root box has a max-grow limit that the boxes within inherit.
+ */
+public class FlattenTest {
+
+	public static void main(String[] args) throws Exception {
+
+		SwingUtilities.invokeAndWait(() -> {
+			Container plain = build(false);
+			Container flat = build(true);
+			for (Dimension size : new Dimension[] { plain.getPreferredSize(), new Dimension(2000, 600), new Dimension(300, 100) }) {
+				List<Rectangle> expected = layout(plain, size);
+				List<Rectangle> actual = layout(flat, size);
+				if (!expected.equals(actual)) {
+					throw new AssertionError("Flattened bounds differ for size " + size + ":\n" + expected + "\n" + actual);
+				}
+			}
+			System.out.println("Flattened bounds are the same.");
+		});
+	}
+
+	static Container build(boolean flatten) {
+
+		PageBox root = new PageBox();
+		root.setMaxGrowX(2.0);
+		SimpleFormBuilder f = new SimpleFormBuilder(root).setFlattenOnBuild(flatten);
+		f.addLineBox().add(new JTextField("inherits max-grow")).growx(4);
+		f.upToRoot().addLineBox().addLineBox().add(new JLabel("Name:")).add(new JTextField()).growx(3);
+		f.upToRoot().addPageBox().add(new JButton("Button")).growx(0);
+		Container c = f.build();
+		System.out.println((flatten ? "Flattened" : "Plain") + " form, removed containers: " + f.getFlattenedContainers());
+		return c;
+	}
+
+	static List<Rectangle> layout(Container root, Dimension size) {
+
+		root.setSize(size);
+		List<Rectangle> bounds = new ArrayList<>();
+		layout(root, root, bounds);
+		return bounds;
+	}
+
+	static void layout(Container root, Container c, List<Rectangle> bounds) {
+
+		c.doLayout();
+		for (Component child : c.getComponents()) {
+			if (child instanceof AbstractBox) {
+				layout(root, (Container) child, bounds);
+			} else {
+				bounds.add(SwingUtilities.convertRectangle(c, child.getBounds(), root));
+			}
+		}
+	}
+
+}
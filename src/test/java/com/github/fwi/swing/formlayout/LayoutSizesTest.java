@@ -0,0 +1,166 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.ComponentOrientation;
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Changes the components in line- and page-boxes at random and checks that the layout sizes
+ * (updated per changed component) are the same as the layout sizes calculated from all components.
+ * Also checks that {@link FormLayoutManager#areaOf(int)} matches the bounds of the components.
+ * <br>A box is only valid with a (native) peer, the boxes used here pretend to be valid after validation.
+ */
+public class LayoutSizesTest {
+
+	static final Random random = new Random(1);
+
+	public static void main(String[] args) throws Exception {
+
+		SwingUtilities.invokeAndWait(() -> {
+			for (boolean horizontal : new boolean[] { false, true }) {
+				for (boolean ltr : new boolean[] { true, false }) {
+					check(horizontal, ltr);
+				}
+			}
+			System.out.println("Layout sizes are the same.");
+		});
+	}
+
+	static void check(boolean horizontal, boolean ltr) {
+
+		AbstractBox box = (horizontal ? new LineBox() {
+			boolean valid;
+			@Override public boolean isValid() { return valid; }
+			@Override public void invalidate() { valid = false; super.invalidate(); }
+			@Override public void validate() { doLayout(); valid = true; }
+		} : new PageBox() {
+			boolean valid;
+			@Override public boolean isValid() { return valid; }
+			@Override public void invalidate() { valid = false; super.invalidate(); }
+			@Override public void validate() { doLayout(); valid = true; }
+		});
+		box.setInsets(3, 4);
+		box.setComponentOrientation(ltr ? ComponentOrientation.LEFT_TO_RIGHT : ComponentOrientation.RIGHT_TO_LEFT);
+		FormLayoutManager layout = (FormLayoutManager) box.getLayout();
+		for (int i = 0; i < 50; i++) {
+			box.add(component());
+		}
+		box.setSize(3000, 3000);
+		box.validate();
+		for (int step = 0; step < 2000; step++) {
+			int count = box.getComponentCount();
+			int op = random.nextInt(7);
+			switch (op) {
+			case 0:
+				JComponent c = (JComponent) box.getComponent(random.nextInt(count));
+				setSizes(c);
+				layout.invalidateComponent(c);
+				break;
+			case 1:
+				layout.updateComponents(box, () -> box.add(component(), random.nextInt(count + 1)));
+				break;
+			case 2:
+				if (count > 1) {
+					layout.updateComponents(box, () -> box.remove(random.nextInt(count)));
+				}
+				break;
+			case 3:
+				layout.updateComponents(box, () -> {
+					box.add(component(), 0);
+					Component hide = box.getComponent(random.nextInt(count));
+					hide.setVisible(!hide.isVisible());
+				});
+				break;
+			case 4:
+				Component toggle = box.getComponent(random.nextInt(count));
+				toggle.setVisible(!toggle.isVisible());
+				break;
+			case 5:
+				layout.relayout(box);
+				break;
+			default:
+				Component move = box.getComponent(random.nextInt(count));
+				layout.updateComponents(box, () -> box.setComponentZOrder(move, 0));
+			}
+			if (random.nextBoolean()) {
+				Dimension[] expected = expected(box, horizontal, layout.getFormGraphics());
+				Dimension[] actual = { layout.minimumLayoutSize(box), layout.preferredLayoutSize(box), layout.maximumLayoutSize(box) };
+				if (!Arrays.equals(expected, actual)) {
+					throw new AssertionError("Layout sizes differ after step " + step + " (operation " + op + "): " 
+							+ Arrays.toString(expected) + " " + Arrays.toString(actual));
+				}
+				box.validate();
+				checkAreas(box, layout);
+			}
+		}
+	}
+
+	static void checkAreas(AbstractBox box, FormLayoutManager layout) {
+
+		int count = box.getComponentCount();
+		for (int i = 0; i < count; i++) {
+			Component c = box.getComponent(i);
+			Rectangle area = layout.areaOf(i);
+			if (c.isVisible() ? area == null || !area.union(c.getBounds()).equals(area) : area.width > 0 && area.height > 0) {
+				throw new AssertionError("Area " + area + " does not match component bounds " + c.getBounds() + " at index " + i);
+			}
+		}
+		if (layout.areaOf(count) != null) {
+			throw new AssertionError("Area found for index " + count + " beyond the laid out components.");
+		}
+	}
+
+	static Dimension[] expected(AbstractBox box, boolean horizontal, FormGraphics graphics) {
+
+		Dimension[] d = { new Dimension(), new Dimension(), new Dimension() };
+		int visible = 0;
+		for (Component c : box.getComponents()) {
+			if (!c.isVisible()) {
+				continue;
+			}
+			visible++;
+			Dimension[] sizes = { c.getMinimumSize(), c.getPreferredSize(), c.getMaximumSize() };
+			for (int i = 0; i < 3; i++) {
+				if (horizontal) {
+					d[i].width += sizes[i].width + graphics.hgap;
+					d[i].height = Math.max(d[i].height, sizes[i].height);
+				} else {
+					d[i].height += sizes[i].height + graphics.vgap;
+					d[i].width = Math.max(d[i].width, sizes[i].width);
+				}
+			}
+		}
+		Insets insets = box.getInsets();
+		for (int i = 0; i < 3; i++) {
+			d[i].width += insets.left + insets.right - (horizontal && visible > 0 ? graphics.hgap : 0);
+			d[i].height += insets.top + insets.bottom - (!horizontal && visible > 0 ? graphics.vgap : 0);
+		}
+		d[2] = box.withinMaxGrow(d[2]);
+		return d;
+	}
+
+	static JComponent component() {
+
+		JLabel l = new JLabel("x");
+		setSizes(l);
+		return l;
+	}
+
+	static void setSizes(JComponent c) {
+
+		int w = random.nextInt(50);
+		int h = random.nextInt(30);
+		c.setMinimumSize(new Dimension(w, h));
+		c.setPreferredSize(new Dimension(w + random.nextInt(20), h + random.nextInt(20)));
+		c.setMaximumSize(new Dimension(w + 40 + random.nextInt(random.nextBoolean() ? 30 : 3000), h + 30 + random.nextInt(60)));
+	}
+
+}
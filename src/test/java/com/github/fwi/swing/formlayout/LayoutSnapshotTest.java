@@ -0,0 +1,91 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.awt.ComponentOrientation;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+
+/**
+ * Checks that the bounds calculated by {@link LayoutSnapshot#compute(int, int)} and {@link LayoutSnapshot#computeParallel(int, int)}
+ * are the same as the bounds set by the {@link FormLayoutManager} for the same form and size.
+ */
+public class LayoutSnapshotTest {
+
+	public static void main(String[] args) throws Exception {
+
+		SwingUtilities.invokeAndWait(() -> {
+			Container snapshotForm = build();
+			Container laidOutForm = build();
+			LayoutSnapshot snapshot = LayoutSnapshot.take(snapshotForm);
+			for (Dimension size : new Dimension[] { laidOutForm.getPreferredSize(), new Dimension(1200, 1500), new Dimension(250, 300) }) {
+				laidOutForm.setSize(size);
+				layout(laidOutForm);
+				compare(snapshot.compute(size.width, size.height), laidOutForm, size);
+				compare(snapshot.computeParallel(size.width, size.height), laidOutForm, size);
+			}
+			System.out.println("Snapshot bounds are the same as the laid out bounds.");
+		});
+	}
+
+	static Container build() {
+
+		PageBox root = new PageBox();
+		root.setInsets(3, 5);
+		for (int i = 0; i < 20; i++) {
+			LineBox line = new LineBox();
+			line.add(new JLabel("Label " + i), new FormConstraints("sizex:0.5"));
+			line.add(new JTextField("Value " + i));
+			if (i % 3 == 0) {
+				line.add(new JButton("Button"), new FormConstraints("growx:0"));
+			}
+			if (i % 7 == 0) {
+				line.getComponent(0).setVisible(false);
+			}
+			root.add(line);
+		}
+		LineBox rtl = new LineBox();
+		rtl.setComponentOrientation(ComponentOrientation.RIGHT_TO_LEFT);
+		rtl.add(new JLabel("Right to left"));
+		rtl.add(new JTextField());
+		root.add(rtl);
+		return root;
+	}
+
+	static void layout(Container c) {
+
+		c.doLayout();
+		for (Component child : c.getComponents()) {
+			if (child instanceof AbstractBox) {
+				layout((Container) child);
+			}
+		}
+	}
+
+	static void compare(LayoutSnapshot.Result result, Container c, Dimension size) {
+
+		Component[] components = c.getComponents();
+		for (int i = 0; i < components.length; i++) {
+			if (!components[i].isVisible()) {
+				continue;
+			}
+			int b = i * 4;
+			Rectangle computed = new Rectangle(result.bounds[b], result.bounds[b + 1], result.bounds[b + 2], result.bounds[b + 3]);
+			if (!computed.equals(components[i].getBounds())) {
+				throw new AssertionError("Size " + size + ", component " + i + " in " + c.getClass().getSimpleName() 
+						+ " computed " + computed + ", laid out " + components[i].getBounds());
+			}
+			if (result.children[i] != null) {
+				compare(result.children[i], (Container) components[i], size);
+			} else if (components[i] instanceof AbstractBox) {
+				throw new AssertionError("No snapshot result for box " + i);
+			}
+		}
+	}
+
+}
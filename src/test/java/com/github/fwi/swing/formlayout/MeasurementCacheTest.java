@@ -0,0 +1,43 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Dimension;
+
+import javax.swing.JLabel;
+
+/**
+ * Checks that the {@link MeasurementCache} measures labels with the same state once,
+ * removes the least recently used entry when full and does not cache components with set sizes.
+ */
+public class MeasurementCacheTest {
+
+	public static void main(String[] args) {
+
+		MeasurementCache cache = new MeasurementCache(2);
+		JLabel a = new JLabel("A");
+		cache.getSizes(a);
+		cache.getSizes(new JLabel("B"));
+		Dimension[] sizes = cache.getSizes(new JLabel("A"));
+		check("same state measured once", cache.getHits() == 1 && cache.getMisses() == 2);
+		check("sizes of label", sizes[1].equals(a.getPreferredSize()));
+		// "B" is least recently used and removed.
+		cache.getSizes(new JLabel("C"));
+		cache.getSizes(new JLabel("A"));
+		check("most recently used kept", cache.getHits() == 2 && cache.getMisses() == 3);
+		cache.getSizes(new JLabel("B"));
+		check("least recently used removed", cache.getHits() == 2 && cache.getMisses() == 4 && cache.size() == 2);
+		sizes[1].width = -1;
+		check("returned sizes are copies", cache.getSizes(new JLabel("A"))[1].equals(a.getPreferredSize()));
+		JLabel fixed = new JLabel("A");
+		fixed.setPreferredSize(new Dimension(500, 20));
+		check("component with set size not cached", cache.getSizes(fixed) == null);
+		System.out.println("Measurement cache checks passed.");
+	}
+
+	static void check(String description, boolean passed) {
+
+		if (!passed) {
+			throw new AssertionError(description);
+		}
+	}
+
+}
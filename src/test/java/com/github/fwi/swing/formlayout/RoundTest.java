@@ -11,6 +11,49 @@ public class RoundTest {
 		System.out.println("1.6 roundup: " + FormGraphics.roundup(1.6));
 		System.out.println("1.9 roundup: " + FormGraphics.roundup(1.9));
 		System.out.println("2.0 roundup: " + FormGraphics.roundup(2.0));
+		compareFixedPoint();
+		checkConstraints();
+	}
+
+	/**
+	 * Compares the integer roundup with the double roundup,
+	 * except for fractions of exactly 0.001 which the double version rounds either way.
+	 */
+	static void compareFixedPoint() {
+
+		int compared = 0;
+		for (long den : new long[] { 1L, 3L, 7L, 999L, 1000L, 1001L, 4096L, 1000000L }) {
+			for (long num = -20000L; num <= 20000L; num++) {
+				if (Math.floorMod(num, den) * 1000L == den) {
+					continue;
+				}
+				int expected = FormGraphics.roundup((double) num / den);
+				int actual = FormGraphics.roundup(num, den);
+				if (expected != actual) {
+					throw new AssertionError("roundup(" + num + ", " + den + ") is " + actual + ", expected " + expected);
+				}
+				compared++;
+			}
+		}
+		System.out.println("Fixed-point roundup same as double roundup for " + compared + " fractions.");
+		if (FormGraphics.roundup(Long.MAX_VALUE, 3L) != Integer.MAX_VALUE || FormGraphics.roundup(Long.MIN_VALUE, 3L) != Integer.MIN_VALUE) {
+			throw new AssertionError("roundup outside the integer range is not limited.");
+		}
+	}
+
+	/**
+	 * Tiny and huge grow-values give the maximum window size.
+	 */
+	static void checkConstraints() {
+
+		FormGraphics fg = FormGraphics.getInstance();
+		for (String constraints : new String[] { "growx:0.0001", "growx:0.0004", "growx:1000000000", "sizex:1000,growx:1000000000000" }) {
+			FormConstraints fc = new FormConstraints(constraints);
+			if (fc.maxWidth(fg) != fg.maxWindowWidth) {
+				throw new AssertionError(constraints + " max-width is " + fc.maxWidth(fg) + ", expected " + fg.maxWindowWidth);
+			}
+		}
+		System.out.println("Tiny and huge grow-values give the maximum window width.");
 	}
 	
 }
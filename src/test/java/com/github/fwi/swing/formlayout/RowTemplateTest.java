@@ -0,0 +1,60 @@
+package com.github.fwi.swing.formlayout;
+
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JLabel;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+
+import com.github.fwi.swing.formlayout.builder.RowTemplate;
+
+/**
+ * Checks that rows created from a {@link RowTemplate} share the form-constraints per column
+ * and that a change to the shared form-constraints applies to all rows
+ * (form-constraints changes are applied on the event dispatch thread).
+ */
+public class RowTemplateTest {
+
+	public static void main(String[] args) throws Exception {
+		SwingUtilities.invokeAndWait(RowTemplateTest::checkRows);
+	}
+
+	static void checkRows() {
+
+		FormGraphics fg = new FormGraphics();
+		RowTemplate<String> template = new RowTemplate<String>()
+				.add(s -> new JLabel(s), "sizex:0.5")
+				.add(s -> new JTextField(s))
+				.add(s -> new JTextField(s), "growx:0");
+		List<LineBox> rows = new ArrayList<>();
+		for (String s : new String[] { "one", "two", "three" }) {
+			rows.add(template.createRow(fg, s));
+		}
+		for (LineBox row : rows) {
+			FormLayoutManager layout = (FormLayoutManager) row.getLayout();
+			Component[] columns = row.getComponents();
+			check("column count", columns.length == template.getColumnCount());
+			check("shared constraints", layout.getConstraints(columns[0]) == template.getConstraints(0)
+					&& layout.getConstraints(columns[2]) == template.getConstraints(2));
+			check("column without constraints", layout.getConstraints(columns[1]) == null && template.getConstraints(1) == null);
+		}
+		int prefWidth = template.getConstraints(0).prefSize(fg).width;
+		int rowWidth = rows.get(0).getPreferredSize().width;
+		template.getConstraints(0).setSizex(2.0);
+		check("shared sizes recalculated", template.getConstraints(0).prefSize(fg).width > prefWidth);
+		for (LineBox row : rows) {
+			check("all rows use changed constraints", row.getPreferredSize().width > rowWidth);
+		}
+		System.out.println("Row template checks passed.");
+	}
+
+	static void check(String description, boolean passed) {
+
+		if (!passed) {
+			throw new AssertionError(description);
+		}
+	}
+
+}